@@ -29,11 +29,42 @@ if not exist "%OUT_DIR%" mkdir "%OUT_DIR%"
 
 echo Compiling Java source files...
 javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\task\Priority.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\task\ExecutionClass.java" 2>nul
 javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\task\Task.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\task\BatchHandler.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\task\BatchTask.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\task\ForkContext.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\task\SplittableTask.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\task\PooledTask.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\trace\TaskEvent.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\trace\TaskSubmittedEvent.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\trace\TaskDelayFiredEvent.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\trace\TaskDequeuedEvent.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\trace\TaskStartedEvent.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\trace\TaskFinishedEvent.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\trace\TaskRejectedEvent.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\trace\SchedulerTracing.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\metrics\LatencyHistogram.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\metrics\SchedulerStats.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\RateLimiter.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\IdleStrategy.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\BlockingIdleStrategy.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\BackoffIdleStrategy.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\Batcher.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\WorkerSnapshot.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\ScheduledTask.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\VirtualClockSimulator.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\WorkerThreads.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\AdmissionController.java" 2>nul
 javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\service\TaskScheduler.java" 2>nul
 javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\ui\SchedulerMetrics.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\ui\TimeSeriesChart.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\metrics\MetricsHttpServer.java" 2>nul
 javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\ui\SchedulerGUI.java" 2>nul
 javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\Simulation.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\CapacitySweep.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\IdleStrategyBenchmark.java" 2>nul
+javac -d "%OUT_DIR%" "%SRC_DIR%\com\scheduler\trace\JfrLatencyAnalyzer.java" 2>nul
 
 if errorlevel 1 (
     echo.
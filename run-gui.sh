@@ -23,11 +23,42 @@ mkdir -p "$OUT_DIR"
 
 echo "Compiling Java source files..."
 javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/task/Priority.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/task/ExecutionClass.java"
 javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/task/Task.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/task/BatchHandler.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/task/BatchTask.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/task/ForkContext.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/task/SplittableTask.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/task/PooledTask.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/trace/TaskEvent.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/trace/TaskSubmittedEvent.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/trace/TaskDelayFiredEvent.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/trace/TaskDequeuedEvent.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/trace/TaskStartedEvent.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/trace/TaskFinishedEvent.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/trace/TaskRejectedEvent.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/trace/SchedulerTracing.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/metrics/LatencyHistogram.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/metrics/SchedulerStats.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/RateLimiter.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/IdleStrategy.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/BlockingIdleStrategy.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/BackoffIdleStrategy.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/Batcher.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/WorkerSnapshot.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/ScheduledTask.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/VirtualClockSimulator.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/WorkerThreads.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/AdmissionController.java"
 javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/service/TaskScheduler.java"
 javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/ui/SchedulerMetrics.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/ui/TimeSeriesChart.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/metrics/MetricsHttpServer.java"
 javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/ui/SchedulerGUI.java"
 javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/Simulation.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/CapacitySweep.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/IdleStrategyBenchmark.java"
+javac -d "$OUT_DIR" "$SRC_DIR/com/scheduler/trace/JfrLatencyAnalyzer.java"
 
 if [ $? -ne 0 ]; then
     echo ""
@@ -0,0 +1,72 @@
+package com.scheduler;
+
+import com.scheduler.metrics.LatencyHistogram;
+import com.scheduler.service.VirtualClockSimulator;
+import com.scheduler.task.Priority;
+
+import java.util.Random;
+
+/**
+ * Capacity planning sweep on the virtual clock: replays the same Poisson
+ * workload against a range of worker counts and reports throughput and
+ * per-priority queue wait for each, to find how many workers a load needs.
+ *
+ * Usage:
+ * java com.scheduler.CapacitySweep <numTasks> <arrivalsPerSecond> <meanServiceMs> <maxWorkers>
+ *
+ * Output:
+ * CSV format to stdout:
+ * Workers,ThroughputPerSec,Utilization,<priority>MeanWaitMs,<priority>P99WaitMs,...
+ */
+public class CapacitySweep {
+
+    private static final long SEED = 42;
+
+    public static void main(String[] args) {
+        int numTasks = 1_000_000;
+        double arrivalsPerSecond = 1_000;
+        double meanServiceMs = 10;
+        int maxWorkers = 16;
+
+        if (args.length >= 4) {
+            numTasks = Integer.parseInt(args[0]);
+            arrivalsPerSecond = Double.parseDouble(args[1]);
+            meanServiceMs = Double.parseDouble(args[2]);
+            maxWorkers = Integer.parseInt(args[3]);
+        }
+
+        StringBuilder header = new StringBuilder("Workers,ThroughputPerSec,Utilization");
+        for (Priority p : Priority.values()) {
+            header.append(',').append(p).append("MeanWaitMs,").append(p).append("P99WaitMs");
+        }
+        System.out.println(header);
+
+        long wallStart = System.nanoTime();
+        for (int workers = 1; workers <= maxWorkers; workers++) {
+            VirtualClockSimulator simulator = new VirtualClockSimulator(workers,
+                    VirtualClockSimulator.ServiceTimeModel.exponential(meanServiceMs, SEED));
+
+            // Same seed for every run so each worker count sees the same arrivals
+            Random rand = new Random(SEED);
+            double meanGapNanos = 1e9 / arrivalsPerSecond;
+            double arrival = 0;
+            for (int i = 0; i < numTasks; i++) {
+                arrival += -meanGapNanos * Math.log(1.0 - rand.nextDouble());
+                Priority prio = Priority.values()[rand.nextInt(Priority.values().length)];
+                simulator.submit(prio, 0, (long) arrival);
+            }
+
+            VirtualClockSimulator.Result result = simulator.run();
+            double utilization = Math.min(1.0, result.getThroughputTasksPerSecond() * meanServiceMs / 1000.0 / workers);
+            StringBuilder row = new StringBuilder(String.format("%d,%.1f,%.3f",
+                    workers, result.getThroughputTasksPerSecond(), utilization));
+            for (Priority p : Priority.values()) {
+                LatencyHistogram.Snapshot wait = result.getWait(p);
+                row.append(String.format(",%.3f,%.3f",
+                        wait.getMeanNanos() / 1_000_000.0, result.getWaitQuantileNanos(p, 0.99) / 1_000_000.0));
+            }
+            System.out.println(row);
+        }
+        System.err.println("Sweep took " + (System.nanoTime() - wallStart) / 1_000_000 + " ms");
+    }
+}
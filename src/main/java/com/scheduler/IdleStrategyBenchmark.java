@@ -0,0 +1,115 @@
+package com.scheduler;
+
+import com.scheduler.service.IdleStrategy;
+import com.scheduler.service.TaskScheduler;
+import com.scheduler.task.Priority;
+import com.scheduler.task.Task;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares worker idle strategies: handoff latency (submit to start) against
+ * the CPU the workers burn while mostly idle.
+ *
+ * Usage:
+ * java com.scheduler.IdleStrategyBenchmark <numTasks> <numThreads> <gapMicros>
+ *
+ * Tasks are submitted one at a time with a gap between them, so the queue is
+ * usually empty and each task measures a cold handoff to an idle worker.
+ */
+public class IdleStrategyBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int numTasks = 20_000;
+        int numThreads = 4;
+        long gapMicros = 50;
+
+        if (args.length >= 3) {
+            numTasks = Integer.parseInt(args[0]);
+            numThreads = Integer.parseInt(args[1]);
+            gapMicros = Long.parseLong(args[2]);
+        }
+
+        IdleStrategy[] strategies = {
+                IdleStrategy.blocking(),
+                IdleStrategy.busySpin(),
+                IdleStrategy.spinThenYield(1_000),
+                IdleStrategy.backoff(1_000, 100, 1_000, 1_000_000)
+        };
+
+        System.out.println("Strategy,p50HandoffUs,p99HandoffUs,MaxHandoffUs,WorkerCpuPercent");
+        for (IdleStrategy strategy : strategies) {
+            // Warm up the JIT, then measure
+            run(strategy, Math.min(numTasks, 2_000), numThreads, gapMicros);
+            System.out.println(run(strategy, numTasks, numThreads, gapMicros));
+        }
+    }
+
+    private static String run(IdleStrategy strategy, int numTasks, int numThreads, long gapMicros)
+            throws InterruptedException {
+        TaskScheduler scheduler = new TaskScheduler(numThreads, strategy);
+        CountDownLatch latch = new CountDownLatch(numTasks);
+        List<Task> tasks = new ArrayList<>(numTasks);
+        long gapNanos = TimeUnit.MICROSECONDS.toNanos(gapMicros);
+
+        long cpuStart = workerCpuNanos();
+        long wallStart = System.nanoTime();
+
+        for (int i = 0; i < numTasks; i++) {
+            Task task = new Task(latch::countDown, Priority.HIGH, 0);
+            tasks.add(task);
+            scheduler.submit(task);
+
+            // Busy-wait the gap: sleeping would add its own wakeup jitter
+            long until = System.nanoTime() + gapNanos;
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+        }
+        latch.await();
+
+        long wallNanos = System.nanoTime() - wallStart;
+        long cpuNanos = workerCpuNanos() - cpuStart;
+        scheduler.shutdown();
+        // Let the workers exit so they don't count towards the next run's CPU
+        Thread.sleep(200);
+
+        long[] handoffs = new long[numTasks];
+        for (int i = 0; i < numTasks; i++) {
+            Task t = tasks.get(i);
+            handoffs[i] = t.getExecutionStartTime() - t.getSubmissionTime();
+        }
+        Arrays.sort(handoffs);
+
+        double cpuPercent = 100.0 * cpuNanos / ((double) wallNanos * numThreads);
+        return String.format("%s,%.1f,%.1f,%.1f,%.1f",
+                strategy,
+                handoffs[numTasks / 2] / 1_000.0,
+                handoffs[(int) (numTasks * 0.99)] / 1_000.0,
+                handoffs[numTasks - 1] / 1_000.0,
+                cpuPercent);
+    }
+
+    /**
+     * Total CPU time consumed so far by all live scheduler worker threads.
+     */
+    private static long workerCpuNanos() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (ThreadInfo info : mx.getThreadInfo(mx.getAllThreadIds())) {
+            if (info != null && info.getThreadName().startsWith("Scheduler-Worker-")) {
+                long cpu = mx.getThreadCpuTime(info.getThreadId());
+                if (cpu > 0) {
+                    total += cpu;
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -1,6 +1,7 @@
 package com.scheduler;
 
 import com.scheduler.service.TaskScheduler;
+import com.scheduler.service.VirtualClockSimulator;
 import com.scheduler.task.Priority;
 import com.scheduler.task.Task;
 
@@ -14,13 +15,22 @@ import java.util.concurrent.atomic.AtomicLong;
  * Main simulation entry point for the Task Scheduler.
  *
  * Usage:
- * java com.scheduler.Simulation <numTasks> <numThreads>
+ * java com.scheduler.Simulation <numTasks> <numThreads> [virtual [seed]]
+ *
+ * With "virtual" the same workload is replayed on a virtual clock by
+ * VirtualClockSimulator instead of real threads, so large runs finish in
+ * seconds. Times in the CSV are then virtual nanoseconds from the start.
+ * The workload is drawn from a fixed seed (42 unless given), so repeated
+ * runs produce the same output.
  *
  * Output:
  * CSV format to stdout:
  * TaskID,Priority,SubmissionTime(ns),ExecutionStartTime(ns),QueueWaitTime(ns)
  */
 public class Simulation {
+
+    private static final long DEFAULT_SEED = 42;
+
     public static void main(String[] args) throws InterruptedException {
         int numTasks = 100;
         int numThreads = 5;
@@ -29,6 +39,11 @@ public class Simulation {
             numTasks = Integer.parseInt(args[0]);
             numThreads = Integer.parseInt(args[1]);
         }
+        if (args.length >= 3 && "virtual".equals(args[2])) {
+            long seed = args.length >= 4 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+            runVirtual(numTasks, numThreads, seed);
+            return;
+        }
 
         TaskScheduler scheduler = new TaskScheduler(numThreads);
         CountDownLatch latch = new CountDownLatch(numTasks);
@@ -85,6 +100,33 @@ public class Simulation {
 
         scheduler.shutdown();
 
+        printMetrics(stats, totalTimeMs, numTasks);
+    }
+
+    /**
+     * Same workload as the threaded run, simulated: all tasks arrive at once
+     * with a random 0-99ms delay and take 10ms each.
+     */
+    private static void runVirtual(int numTasks, int numThreads, long seed) {
+        VirtualClockSimulator simulator = new VirtualClockSimulator(numThreads,
+                VirtualClockSimulator.ServiceTimeModel.fixed(10));
+        List<Task> stats = new ArrayList<>(numTasks);
+        Random rand = new Random(seed);
+
+        for (int i = 0; i < numTasks; i++) {
+            Priority prio = Priority.values()[rand.nextInt(Priority.values().length)];
+            long delay = rand.nextInt(100);
+            stats.add(simulator.submit(prio, delay, 0));
+        }
+
+        VirtualClockSimulator.Result result = simulator.run();
+        System.err.println(String.format("Simulated %d events in %d ms (%.1fM events/s)",
+                result.getEvents(), result.getWallNanos() / 1_000_000, result.getEventsPerSecond() / 1e6));
+
+        printMetrics(stats, result.getMakespanNanos() / 1_000_000, numTasks);
+    }
+
+    private static void printMetrics(List<Task> stats, long totalTimeMs, int numTasks) {
         // Print Metrics Header
         System.out.println("TaskID,Priority,SubmissionTime,ExecutionStartTime,QueueWaitTime,TotalSimTimeMs,TotalTasks");
 
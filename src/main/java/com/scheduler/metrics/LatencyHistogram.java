@@ -0,0 +1,139 @@
+package com.scheduler.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two buckets from 1 microsecond to
+ * about 67 seconds. Recording is a single LongAdder increment per bucket, sum
+ * and count, so workers never contend on a lock.
+ */
+public class LatencyHistogram {
+
+    // Bucket i holds values up to 2^i microseconds; one extra for overflow
+    public static final int BUCKETS = 27;
+
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos;
+    private final LongAdder count;
+
+    public LatencyHistogram() {
+        this.buckets = new LongAdder[BUCKETS + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.sumNanos = new LongAdder();
+        this.count = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[bucketIndex(nanos)].increment();
+        sumNanos.add(nanos);
+        count.increment();
+    }
+
+    static int bucketIndex(long nanos) {
+        // Rounded up, so a value just over a bucket's bound lands in the next
+        // bucket instead of being truncated into this one
+        long micros = nanos <= 0 ? 0 : (nanos - 1) / 1_000 + 1;
+        if (micros <= 1) {
+            return 0;
+        }
+        int index = 64 - Long.numberOfLeadingZeros(micros - 1);
+        return Math.min(index, BUCKETS);
+    }
+
+    /**
+     * @return Upper bound of bucket i in seconds (the last bucket is unbounded).
+     */
+    public static double upperBoundSeconds(int bucket) {
+        return (1L << bucket) / 1_000_000.0;
+    }
+
+    /**
+     * Reads the histogram without stopping writers. Buckets, sum and count are
+     * read one after another, so a snapshot taken under load can be off by the
+     * few samples recorded while it was being read.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(counts, sumNanos.sum(), count.sum());
+    }
+
+    /**
+     * Immutable histogram contents.
+     */
+    public static class Snapshot {
+        private final long[] bucketCounts;
+        private final long sumNanos;
+        private final long count;
+
+        Snapshot(long[] bucketCounts, long sumNanos, long count) {
+            this.bucketCounts = bucketCounts;
+            this.sumNanos = sumNanos;
+            this.count = count;
+        }
+
+        /**
+         * @return Non-cumulative count of bucket i (index BUCKETS is overflow).
+         */
+        public long getBucketCount(int bucket) {
+            return bucketCounts[bucket];
+        }
+
+        public long getSumNanos() {
+            return sumNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Estimates a quantile as the upper bound of the bucket containing it.
+         *
+         * @param quantile Between 0 and 1, e.g. 0.99.
+         * @return The estimate in nanoseconds, or 0 if the histogram is empty.
+         */
+        public long quantileNanos(double quantile) {
+            long total = 0;
+            for (long c : bucketCounts) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank) {
+                    return TimeUnit.MICROSECONDS.toNanos(1L << Math.min(i, BUCKETS - 1));
+                }
+            }
+            return TimeUnit.MICROSECONDS.toNanos(1L << (BUCKETS - 1));
+        }
+
+        /**
+         * @return The samples recorded between an earlier snapshot and this
+         *         one, e.g. to chart a per-interval p99.
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] counts = new long[bucketCounts.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = Math.max(0, bucketCounts[i] - earlier.bucketCounts[i]);
+            }
+            return new Snapshot(counts, Math.max(0, sumNanos - earlier.sumNanos), Math.max(0, count - earlier.count));
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) sumNanos / count;
+        }
+    }
+}
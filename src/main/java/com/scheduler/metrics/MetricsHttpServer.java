@@ -0,0 +1,313 @@
+package com.scheduler.metrics;
+
+import com.scheduler.service.TaskScheduler;
+import com.scheduler.task.Priority;
+import com.scheduler.ui.SchedulerMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless metrics endpoint serving the scheduler's statistics in Prometheus
+ * text exposition format at {@code /metrics}, built on the JDK's own HTTP
+ * server so it needs no extra dependencies.
+ *
+ * A rendered page is cached for a short time, so frequent scrapes only read
+ * the lock-free counters once per cache period and never touch the workers.
+ */
+public class MetricsHttpServer {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final TaskScheduler scheduler;
+
+    // Optional application-level metrics fed by the GUI or a simulation
+    private final SchedulerMetrics applicationMetrics;
+
+    private final long cacheNanos;
+    private final HttpServer server;
+
+    // Last rendered page; replaced wholesale, never mutated
+    private volatile CachedPage cached;
+
+    /**
+     * @param scheduler Scheduler whose statistics are exported.
+     * @param port      Port to listen on (0 picks a free port).
+     * @param cacheMs   How long a rendered page is reused.
+     * @throws IOException if the port cannot be bound.
+     */
+    public MetricsHttpServer(TaskScheduler scheduler, int port, long cacheMs) throws IOException {
+        this(scheduler, null, port, cacheMs);
+    }
+
+    /**
+     * @param scheduler          Scheduler whose statistics are exported.
+     * @param applicationMetrics Simulation-level metrics to export as well (may
+     *                           be null).
+     * @param port               Port to listen on (0 picks a free port).
+     * @param cacheMs            How long a rendered page is reused.
+     * @throws IOException if the port cannot be bound.
+     */
+    public MetricsHttpServer(TaskScheduler scheduler, SchedulerMetrics applicationMetrics, int port, long cacheMs)
+            throws IOException {
+        this.scheduler = scheduler;
+        this.applicationMetrics = applicationMetrics;
+        this.cacheNanos = TimeUnit.MILLISECONDS.toNanos(cacheMs);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext("/metrics", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * @return The port actually bound.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = page();
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Returns the cached page, rendering a new one if it has expired. Two
+     * scrapes racing on an expired page may both render; that is cheaper than
+     * a lock and harmless.
+     */
+    byte[] page() {
+        long now = System.nanoTime();
+        CachedPage page = cached;
+        if (page == null || now - page.renderedAt >= cacheNanos) {
+            page = new CachedPage(now, render().getBytes(StandardCharsets.UTF_8));
+            cached = page;
+        }
+        return page.body;
+    }
+
+    String render() {
+        SchedulerStats.Snapshot s = scheduler.getStatsSnapshot();
+        StringBuilder out = new StringBuilder(8192);
+
+        header(out, "scheduler_tasks_submitted_total", "counter", "Tasks accepted by submit().");
+        for (Priority p : Priority.values()) {
+            sample(out, "scheduler_tasks_submitted_total", labels(p), s.getSubmitted(p));
+        }
+        header(out, "scheduler_tasks_rejected_total", "counter", "Tasks refused by submit().");
+        for (Priority p : Priority.values()) {
+            sample(out, "scheduler_tasks_rejected_total", labels(p), s.getRejected(p));
+        }
+        header(out, "scheduler_tasks_completed_total", "counter",
+                "Submitted tasks that finished running; each batch item counts, forked children do not.");
+        for (Priority p : Priority.values()) {
+            sample(out, "scheduler_tasks_completed_total", labels(p), s.getCompleted(p));
+        }
+        header(out, "scheduler_tasks_failed_total", "counter",
+                "Tasks that threw an exception (for a batch item, its handler or its callback).");
+        for (Priority p : Priority.values()) {
+            sample(out, "scheduler_tasks_failed_total", labels(p), s.getFailed(p));
+        }
+        header(out, "scheduler_tasks_rate_limited_total", "counter", "Dispatches deferred by a rate limit.");
+        for (Priority p : Priority.values()) {
+            sample(out, "scheduler_tasks_rate_limited_total", labels(p), s.getRateLimited(p));
+        }
+        header(out, "scheduler_tasks_timed_out_total", "counter", "Tasks interrupted by the watchdog.");
+        sample(out, "scheduler_tasks_timed_out_total", "", s.getTimedOut());
+        header(out, "scheduler_tasks_shed_total", "counter",
+                "Tasks refused by admission control because their estimated wait was over budget.");
+        for (Priority p : Priority.values()) {
+            sample(out, "scheduler_tasks_shed_total", labels(p), s.getShed(p));
+        }
+
+        // Estimator accuracy: the ratio of the two sums is the estimator's bias
+        header(out, "scheduler_admission_estimated_wait_seconds_total", "counter",
+                "Wait predicted at admission, summed over started tasks.");
+        for (Priority p : Priority.values()) {
+            sample(out, "scheduler_admission_estimated_wait_seconds_total", labels(p),
+                    s.getEstimatedWaitNanos(p) / 1e9);
+        }
+        header(out, "scheduler_admission_actual_wait_seconds_total", "counter",
+                "Actual wait of the same tasks.");
+        for (Priority p : Priority.values()) {
+            sample(out, "scheduler_admission_actual_wait_seconds_total", labels(p), s.getActualWaitNanos(p) / 1e9);
+        }
+        header(out, "scheduler_admission_estimate_error_seconds", "histogram",
+                "Absolute difference between predicted and actual wait.");
+        for (Priority p : Priority.values()) {
+            histogram(out, "scheduler_admission_estimate_error_seconds", priorityLabel(p), s.getEstimateError(p));
+        }
+
+        header(out, "scheduler_queue_depth", "gauge", "Tasks waiting, by queue and priority.");
+        for (Priority p : Priority.values()) {
+            sample(out, "scheduler_queue_depth", "{queue=\"ready\",priority=\"" + p + "\"}", s.getReadyDepth(p));
+            sample(out, "scheduler_queue_depth", "{queue=\"delayed\",priority=\"" + p + "\"}", s.getDelayedDepth(p));
+        }
+
+        header(out, "scheduler_workers", "gauge", "Worker threads.");
+        sample(out, "scheduler_workers", "", s.getWorkers());
+        header(out, "scheduler_workers_busy", "gauge", "Workers currently running a task.");
+        sample(out, "scheduler_workers_busy", "", s.getBusyWorkers());
+        header(out, "scheduler_worker_utilization", "gauge", "Fraction of workers currently running a task.");
+        sample(out, "scheduler_worker_utilization", "", s.getUtilization());
+        header(out, "scheduler_worker_busy_seconds_total", "counter",
+                "Total time workers spent running tasks; rate() over workers gives utilization.");
+        sample(out, "scheduler_worker_busy_seconds_total", "", s.getBusyNanos() / 1e9);
+
+        header(out, "scheduler_queue_wait_seconds", "histogram", "Time from ready to start.");
+        for (Priority p : Priority.values()) {
+            histogram(out, "scheduler_queue_wait_seconds", priorityLabel(p), s.getQueueWait(p));
+        }
+        header(out, "scheduler_execution_seconds", "histogram", "Task run time.");
+        for (Priority p : Priority.values()) {
+            histogram(out, "scheduler_execution_seconds", priorityLabel(p), s.getExecution(p));
+        }
+
+        renderPoolMetrics(out, scheduler.getPoolStatsSnapshots());
+
+        if (applicationMetrics != null) {
+            renderApplicationMetrics(out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Per-pool (bulkhead) series, labeled with the pool name.
+     */
+    private static void renderPoolMetrics(StringBuilder out, Map<String, SchedulerStats.Snapshot> pools) {
+        header(out, "scheduler_pool_tasks_completed_total", "counter", "Tasks run, by worker pool.");
+        for (Map.Entry<String, SchedulerStats.Snapshot> pool : pools.entrySet()) {
+            for (Priority p : Priority.values()) {
+                sample(out, "scheduler_pool_tasks_completed_total", labels(pool.getKey(), p),
+                        pool.getValue().getCompleted(p));
+            }
+        }
+        header(out, "scheduler_pool_queue_depth", "gauge", "Ready tasks waiting, by worker pool.");
+        for (Map.Entry<String, SchedulerStats.Snapshot> pool : pools.entrySet()) {
+            for (Priority p : Priority.values()) {
+                sample(out, "scheduler_pool_queue_depth", labels(pool.getKey(), p),
+                        pool.getValue().getReadyDepth(p));
+            }
+        }
+        header(out, "scheduler_pool_workers", "gauge", "Worker threads, by worker pool.");
+        for (Map.Entry<String, SchedulerStats.Snapshot> pool : pools.entrySet()) {
+            sample(out, "scheduler_pool_workers", poolLabels(pool.getKey()), pool.getValue().getWorkers());
+        }
+        header(out, "scheduler_pool_workers_busy", "gauge", "Workers currently running a task, by worker pool.");
+        for (Map.Entry<String, SchedulerStats.Snapshot> pool : pools.entrySet()) {
+            sample(out, "scheduler_pool_workers_busy", poolLabels(pool.getKey()), pool.getValue().getBusyWorkers());
+        }
+        header(out, "scheduler_pool_worker_busy_seconds_total", "counter",
+                "Total time a pool's workers spent running tasks.");
+        for (Map.Entry<String, SchedulerStats.Snapshot> pool : pools.entrySet()) {
+            sample(out, "scheduler_pool_worker_busy_seconds_total", poolLabels(pool.getKey()),
+                    pool.getValue().getBusyNanos() / 1e9);
+        }
+        header(out, "scheduler_pool_queue_wait_seconds", "histogram", "Time from ready to start, by worker pool.");
+        for (Map.Entry<String, SchedulerStats.Snapshot> pool : pools.entrySet()) {
+            for (Priority p : Priority.values()) {
+                histogram(out, "scheduler_pool_queue_wait_seconds",
+                        "pool=\"" + pool.getKey() + "\"," + priorityLabel(p), pool.getValue().getQueueWait(p));
+            }
+        }
+    }
+
+    private void renderApplicationMetrics(StringBuilder out) {
+        header(out, "simulation_tasks", "gauge", "Tasks in the current simulation run.");
+        sample(out, "simulation_tasks", "", applicationMetrics.getTotalTasks());
+        header(out, "simulation_tasks_completed", "gauge", "Tasks completed in the current simulation run.");
+        sample(out, "simulation_tasks_completed", "", applicationMetrics.getCompletedTasks());
+        header(out, "simulation_average_wait_seconds", "gauge", "Average queue wait of the current run.");
+        sample(out, "simulation_average_wait_seconds", "", applicationMetrics.getAverageWaitTimeMs() / 1000.0);
+        header(out, "simulation_throughput_tasks_per_second", "gauge", "Throughput of the current run.");
+        sample(out, "simulation_throughput_tasks_per_second", "", applicationMetrics.getThroughputTasksPerSecond());
+    }
+
+    private static String labels(Priority priority) {
+        return "{" + priorityLabel(priority) + "}";
+    }
+
+    private static String labels(String pool, Priority priority) {
+        return "{pool=\"" + pool + "\"," + priorityLabel(priority) + "}";
+    }
+
+    private static String poolLabels(String pool) {
+        return "{pool=\"" + pool + "\"}";
+    }
+
+    private static String priorityLabel(Priority priority) {
+        return "priority=\"" + priority + "\"";
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append(labels).append(' ').append(format(value)).append('\n');
+    }
+
+    /**
+     * @param labels Comma-separated labels of the series, without braces.
+     */
+    private static void histogram(StringBuilder out, String name, String labels,
+            LatencyHistogram.Snapshot histogram) {
+        long cumulative = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            cumulative += histogram.getBucketCount(i);
+            out.append(name).append("_bucket{").append(labels).append(",le=\"")
+                    .append(format(LatencyHistogram.upperBoundSeconds(i))).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        cumulative += histogram.getBucketCount(LatencyHistogram.BUCKETS);
+        out.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ")
+                .append(cumulative).append('\n');
+        // Count is taken from the buckets so the series stays self-consistent
+        sample(out, name + "_sum", "{" + labels + "}", histogram.getSumNanos() / 1e9);
+        sample(out, name + "_count", "{" + labels + "}", cumulative);
+    }
+
+    private static String format(double value) {
+        // Double.toString is locale-independent and parses as a Go float
+        return Double.toString(value);
+    }
+
+    private static class CachedPage {
+        final long renderedAt;
+        final byte[] body;
+
+        CachedPage(long renderedAt, byte[] body) {
+            this.renderedAt = renderedAt;
+            this.body = body;
+        }
+    }
+}
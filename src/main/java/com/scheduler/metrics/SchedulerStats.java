@@ -0,0 +1,379 @@
+package com.scheduler.metrics;
+
+import com.scheduler.task.Priority;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters, per-priority queue depths and latency histograms recorded by the
+ * scheduler on its hot path. Everything is a LongAdder or atomic, so recording
+ * never takes a lock; readers take a {@link Snapshot} instead of reading
+ * fields one by one.
+ */
+public class SchedulerStats {
+
+    private static final int PRIORITIES = Priority.values().length;
+
+    private final LongAdder[] submitted = newAdders();
+    private final LongAdder[] rejected = newAdders();
+    private final LongAdder[] completed = newAdders();
+    private final LongAdder[] failed = newAdders();
+    private final LongAdder[] rateLimited = newAdders();
+
+    // Tasks refused by admission control because their estimated wait was
+    // over budget
+    private final LongAdder[] shed = newAdders();
+
+    // Admitted tasks with a wait estimate: summed estimates, summed actual
+    // waits and the absolute error of each estimate
+    private final LongAdder[] estimatedWait = newAdders();
+    private final LongAdder[] actualWait = newAdders();
+    private final LatencyHistogram[] estimateError = newHistograms();
+
+    // Tasks currently in the ready queue and in the delay queue
+    private final AtomicLongArray readyDepth = new AtomicLongArray(PRIORITIES);
+    private final AtomicLongArray delayedDepth = new AtomicLongArray(PRIORITIES);
+
+    private final LatencyHistogram[] queueWait = newHistograms();
+    private final LatencyHistogram[] execution = newHistograms();
+
+    private final AtomicInteger busyWorkers = new AtomicInteger(0);
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    private final long createdNanos = System.nanoTime();
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[PRIORITIES];
+        for (int i = 0; i < PRIORITIES; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static LatencyHistogram[] newHistograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[PRIORITIES];
+        for (int i = 0; i < PRIORITIES; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    public void onSubmitted(Priority priority) {
+        submitted[priority.ordinal()].increment();
+    }
+
+    public void onRejected(Priority priority) {
+        rejected[priority.ordinal()].increment();
+    }
+
+    public void onShed(Priority priority) {
+        shed[priority.ordinal()].increment();
+    }
+
+    /**
+     * Compares an admission-time wait estimate with the wait that actually
+     * happened.
+     *
+     * @param estimatedNanos Wait predicted when the task was admitted.
+     * @param actualNanos    Time from becoming ready to starting.
+     */
+    public void onWaitEstimateChecked(Priority priority, long estimatedNanos, long actualNanos) {
+        int i = priority.ordinal();
+        estimatedWait[i].add(estimatedNanos);
+        actualWait[i].add(actualNanos);
+        estimateError[i].record(Math.abs(actualNanos - estimatedNanos));
+    }
+
+    public void onReadyEnqueued(Priority priority) {
+        readyDepth.incrementAndGet(priority.ordinal());
+    }
+
+    public void onReadyDequeued(Priority priority) {
+        readyDepth.decrementAndGet(priority.ordinal());
+    }
+
+    public void onDelayedEnqueued(Priority priority) {
+        delayedDepth.incrementAndGet(priority.ordinal());
+    }
+
+    public void onDelayedDequeued(Priority priority) {
+        delayedDepth.decrementAndGet(priority.ordinal());
+    }
+
+    public void onRateLimited(Priority priority) {
+        rateLimited[priority.ordinal()].increment();
+    }
+
+    /**
+     * @param waitNanos Time from becoming ready to starting.
+     */
+    public void onStarted(Priority priority, long waitNanos) {
+        queueWait[priority.ordinal()].record(waitNanos);
+    }
+
+    /**
+     * @param executionNanos How long the task ran.
+     * @param success        False if the task threw.
+     */
+    public void onFinished(Priority priority, long executionNanos, boolean success) {
+        execution[priority.ordinal()].record(executionNanos);
+        completed[priority.ordinal()].increment();
+        if (!success) {
+            failed[priority.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Counts a worker as busy. Called once per outermost run on a worker, not
+     * for tasks a joining task runs inline, so a worker is never counted
+     * twice.
+     */
+    public void onWorkerBusy() {
+        busyWorkers.incrementAndGet();
+    }
+
+    /**
+     * @param busyNanos How long the worker was busy.
+     */
+    public void onWorkerIdle(long busyNanos) {
+        busyWorkers.decrementAndGet();
+        this.busyNanos.add(busyNanos);
+    }
+
+    /**
+     * Records one item of a finished batch like a completed task.
+     *
+     * @param waitNanos      Time from submission to the start of its batch.
+     * @param executionNanos How long its batch ran.
+     * @param success        False if the handler or the item's callback threw.
+     */
+    public void onBatchItemFinished(Priority priority, long waitNanos, long executionNanos, boolean success) {
+        int i = priority.ordinal();
+        queueWait[i].record(waitNanos);
+        execution[i].record(executionNanos);
+        completed[i].increment();
+        if (!success) {
+            failed[i].increment();
+        }
+    }
+
+    public void onTimedOut() {
+        timedOut.increment();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    public long getShedCount(Priority priority) {
+        return shed[priority.ordinal()].sum();
+    }
+
+    /**
+     * @return Live ready-queue depth of a priority, cheap enough to read on
+     *         every submission.
+     */
+    public long getReadyDepth(Priority priority) {
+        return Math.max(0, readyDepth.get(priority.ordinal()));
+    }
+
+    /**
+     * @return Live number of workers running a task.
+     */
+    public int getBusyWorkers() {
+        return Math.max(0, busyWorkers.get());
+    }
+
+    /**
+     * @param workerCount Current number of worker threads.
+     */
+    public Snapshot snapshot(int workerCount) {
+        return new Snapshot(this, workerCount);
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+
+    private static long[] values(AtomicLongArray array) {
+        long[] values = new long[array.length()];
+        for (int i = 0; i < values.length; i++) {
+            // Enqueue and dequeue are not counted atomically with the queue
+            // operation itself, so a depth can dip below zero for an instant
+            values[i] = Math.max(0, array.get(i));
+        }
+        return values;
+    }
+
+    private static LatencyHistogram.Snapshot[] snapshots(LatencyHistogram[] histograms) {
+        LatencyHistogram.Snapshot[] values = new LatencyHistogram.Snapshot[histograms.length];
+        for (int i = 0; i < histograms.length; i++) {
+            values[i] = histograms[i].snapshot();
+        }
+        return values;
+    }
+
+    /**
+     * Immutable copy of the statistics at one point in time. Arrays are
+     * indexed by {@link Priority#ordinal()}.
+     */
+    public static class Snapshot {
+        private final long takenAtNanos;
+        private final long uptimeNanos;
+        private final long[] submitted;
+        private final long[] rejected;
+        private final long[] completed;
+        private final long[] failed;
+        private final long[] rateLimited;
+        private final long[] shed;
+        private final long[] estimatedWait;
+        private final long[] actualWait;
+        private final LatencyHistogram.Snapshot[] estimateError;
+        private final long[] readyDepth;
+        private final long[] delayedDepth;
+        private final LatencyHistogram.Snapshot[] queueWait;
+        private final LatencyHistogram.Snapshot[] execution;
+        private final int workers;
+        private final int busyWorkers;
+        private final long busyNanos;
+        private final long timedOut;
+
+        private Snapshot(SchedulerStats stats, int workers) {
+            this.takenAtNanos = System.nanoTime();
+            this.uptimeNanos = takenAtNanos - stats.createdNanos;
+            this.submitted = sums(stats.submitted);
+            this.rejected = sums(stats.rejected);
+            this.completed = sums(stats.completed);
+            this.failed = sums(stats.failed);
+            this.rateLimited = sums(stats.rateLimited);
+            this.shed = sums(stats.shed);
+            this.estimatedWait = sums(stats.estimatedWait);
+            this.actualWait = sums(stats.actualWait);
+            this.estimateError = snapshots(stats.estimateError);
+            this.readyDepth = values(stats.readyDepth);
+            this.delayedDepth = values(stats.delayedDepth);
+            this.queueWait = snapshots(stats.queueWait);
+            this.execution = snapshots(stats.execution);
+            this.workers = workers;
+            this.busyWorkers = Math.max(0, Math.min(workers, stats.busyWorkers.get()));
+            this.busyNanos = stats.busyNanos.sum();
+            this.timedOut = stats.timedOut.sum();
+        }
+
+        public long getTakenAtNanos() {
+            return takenAtNanos;
+        }
+
+        public long getUptimeNanos() {
+            return uptimeNanos;
+        }
+
+        public long getSubmitted(Priority priority) {
+            return submitted[priority.ordinal()];
+        }
+
+        public long getRejected(Priority priority) {
+            return rejected[priority.ordinal()];
+        }
+
+        public long getCompleted(Priority priority) {
+            return completed[priority.ordinal()];
+        }
+
+        public long getFailed(Priority priority) {
+            return failed[priority.ordinal()];
+        }
+
+        public long getRateLimited(Priority priority) {
+            return rateLimited[priority.ordinal()];
+        }
+
+        public long getShed(Priority priority) {
+            return shed[priority.ordinal()];
+        }
+
+        /**
+         * @return Sum of the admission-time wait estimates of started tasks.
+         */
+        public long getEstimatedWaitNanos(Priority priority) {
+            return estimatedWait[priority.ordinal()];
+        }
+
+        /**
+         * @return Sum of the actual waits of the same tasks as
+         *         {@link #getEstimatedWaitNanos(Priority)}.
+         */
+        public long getActualWaitNanos(Priority priority) {
+            return actualWait[priority.ordinal()];
+        }
+
+        /**
+         * @return Absolute error of the wait estimates of started tasks.
+         */
+        public LatencyHistogram.Snapshot getEstimateError(Priority priority) {
+            return estimateError[priority.ordinal()];
+        }
+
+        public long getReadyDepth(Priority priority) {
+            return readyDepth[priority.ordinal()];
+        }
+
+        public long getDelayedDepth(Priority priority) {
+            return delayedDepth[priority.ordinal()];
+        }
+
+        public LatencyHistogram.Snapshot getQueueWait(Priority priority) {
+            return queueWait[priority.ordinal()];
+        }
+
+        public LatencyHistogram.Snapshot getExecution(Priority priority) {
+            return execution[priority.ordinal()];
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public int getBusyWorkers() {
+            return busyWorkers;
+        }
+
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        public long getTimedOut() {
+            return timedOut;
+        }
+
+        public long getTotalCompleted() {
+            long total = 0;
+            for (long c : completed) {
+                total += c;
+            }
+            return total;
+        }
+
+        public long getTotalReadyDepth() {
+            long total = 0;
+            for (long d : readyDepth) {
+                total += d;
+            }
+            return total;
+        }
+
+        /**
+         * @return Fraction of workers currently running a task.
+         */
+        public double getUtilization() {
+            return workers == 0 ? 0 : (double) busyWorkers / workers;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.scheduler.service;
+
+import com.scheduler.task.Priority;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Predictive admission control for one worker pool.
+ *
+ * Estimates how long a new task would wait in the pool's ready queue from the
+ * number of tasks that would run before it and a moving average of service
+ * time, and tells the scheduler to refuse the task when that estimate exceeds
+ * the wait budget of its priority. A task only counts the queued tasks of its
+ * own and higher priorities, so as a backlog builds LOW tasks go over budget
+ * first and HIGH tasks last.
+ *
+ * Higher-priority tasks that arrive after a task was admitted also delay it,
+ * which the queue alone cannot show. To cover that, each priority keeps a
+ * correction factor learned from the ratio between past estimates and the
+ * waits that actually followed. The factor scales the queueing part of the
+ * estimate, so it grows with the queue and never applies when an idle worker
+ * would take the task at once. Without fresh feedback it fades back to 1
+ * over time, so a factor learned during an overload does not outlive it.
+ */
+class AdmissionController {
+
+    // Weight of the newest sample in the service time average (1/8)
+    private static final int SMOOTHING_SHIFT = 3;
+
+    // Fixed-point scale of the correction factors (1024 = 1.0)
+    private static final int FACTOR_SHIFT = 10;
+    private static final long FACTOR_ONE = 1L << FACTOR_SHIFT;
+
+    // Bounds of a correction factor
+    private static final long FACTOR_MAX = 16 * FACTOR_ONE;
+
+    // A correction factor halves its distance to 1 every this long without
+    // feedback
+    private static final long CORRECTION_HALF_LIFE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Wait budget in ms per priority ordinal (0 = admit everything); shared by
+    // all pools of a scheduler
+    private final AtomicLongArray budgetsMs;
+
+    // Exponentially weighted moving average of task run time. Updated without
+    // a CAS: a lost update only drops one sample from an estimate.
+    private volatile long averageServiceNanos;
+
+    // Learned correction factor minus 1, in 1/1024ths, per priority ordinal
+    private final AtomicLongArray correction;
+
+    // When each priority's correction last got feedback (System.nanoTime())
+    private final AtomicLongArray correctionUpdated;
+
+    AdmissionController(AtomicLongArray budgetsMs) {
+        this.budgetsMs = budgetsMs;
+        this.correction = new AtomicLongArray(budgetsMs.length());
+        this.correctionUpdated = new AtomicLongArray(budgetsMs.length());
+    }
+
+    /**
+     * @return The wait budget of the priority in nanoseconds, or 0 if tasks
+     *         of that priority are always admitted.
+     */
+    long getBudgetNanos(Priority priority) {
+        return TimeUnit.MILLISECONDS.toNanos(budgetsMs.get(priority.ordinal()));
+    }
+
+    void recordServiceTime(long nanos) {
+        long average = averageServiceNanos;
+        averageServiceNanos = average == 0 ? nanos : average + ((nanos - average) >> SMOOTHING_SHIFT);
+    }
+
+    long getAverageServiceNanos() {
+        return averageServiceNanos;
+    }
+
+    /**
+     * Moves the priority's correction factor towards the one that would have
+     * made the estimate right. Estimates of 0 (an idle worker was expected to
+     * take the task) say nothing about queueing and are ignored.
+     *
+     * @param estimatedNanos Wait predicted at admission.
+     * @param actualNanos    Wait that actually followed.
+     */
+    void recordEstimateError(Priority priority, long estimatedNanos, long actualNanos) {
+        if (estimatedNanos <= 0) {
+            return;
+        }
+        int i = priority.ordinal();
+        long now = System.nanoTime();
+        long factor = FACTOR_ONE + currentCorrection(i, now);
+        long target = (long) Math.min(FACTOR_MAX, (double) factor * Math.max(0, actualNanos) / estimatedNanos);
+        long updated = factor + ((target - factor) >> SMOOTHING_SHIFT);
+        correction.set(i, Math.max(0, Math.min(FACTOR_MAX, updated)) - FACTOR_ONE);
+        correctionUpdated.set(i, now);
+    }
+
+    /**
+     * Estimates the queue wait of a task that has {@code tasksAhead} ready
+     * tasks in front of it. Idle workers absorb the first tasks at no wait;
+     * every further round of {@code workers} tasks costs one average service
+     * time, scaled by the priority's learned correction factor.
+     *
+     * @param tasksAhead  Ready tasks of equal or higher priority.
+     * @param busyWorkers Workers currently running a task.
+     * @param workers     Workers in the pool.
+     */
+    long estimateWaitNanos(Priority priority, long tasksAhead, int busyWorkers, int workers) {
+        if (workers <= 0) {
+            return Long.MAX_VALUE;
+        }
+        // The live busy count can briefly run outside [0, workers] while
+        // workers start and finish concurrently
+        int busy = Math.max(0, Math.min(workers, busyWorkers));
+        long queued = tasksAhead + busy - workers + 1;
+        if (queued <= 0) {
+            return 0;
+        }
+        long estimate = queued * averageServiceNanos / workers;
+        long factor = FACTOR_ONE + currentCorrection(priority.ordinal(), System.nanoTime());
+        return estimate * factor >> FACTOR_SHIFT;
+    }
+
+    /**
+     * @return The priority's correction, decayed for the time since it last
+     *         got feedback.
+     */
+    private long currentCorrection(int i, long now) {
+        long value = correction.get(i);
+        long halvings = (now - correctionUpdated.get(i)) / CORRECTION_HALF_LIFE_NANOS;
+        return halvings >= 63 ? 0 : value / (1L << halvings);
+    }
+}
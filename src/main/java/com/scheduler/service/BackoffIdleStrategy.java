@@ -0,0 +1,79 @@
+package com.scheduler.service;
+
+import com.scheduler.task.Task;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Polls the queue without blocking, backing off in three phases: spin, then
+ * yield, then park with a doubling period. Busy-spin and spin-then-yield are
+ * the same loop with the later phases pushed out of reach.
+ */
+class BackoffIdleStrategy implements IdleStrategy {
+
+    // Spin iterations between deadline checks (System.nanoTime is not free)
+    private static final int DEADLINE_CHECK_MASK = 0x3FF;
+
+    private final int maxSpins;
+    private final int maxYields;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+
+    BackoffIdleStrategy(int maxSpins, int maxYields, long minParkNanos, long maxParkNanos) {
+        if (maxSpins < 0 || maxYields < 0 || minParkNanos < 0 || maxParkNanos < minParkNanos) {
+            throw new IllegalArgumentException("Invalid backoff parameters");
+        }
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkNanos = Math.max(1, minParkNanos);
+        this.maxParkNanos = Math.max(1, maxParkNanos);
+    }
+
+    @Override
+    public Task poll(BlockingQueue<Task> queue) throws InterruptedException {
+        long deadline = System.nanoTime() + MAX_WAIT_NANOS;
+        int spins = 0;
+        int yields = 0;
+        long parkNanos = minParkNanos;
+
+        while (true) {
+            Task task = queue.poll();
+            if (task != null) {
+                return task;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (spins < maxSpins) {
+                spins++;
+                Thread.onSpinWait();
+                if ((spins & DEADLINE_CHECK_MASK) != 0) {
+                    continue;
+                }
+            } else if (yields < maxYields) {
+                yields++;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (maxSpins == Integer.MAX_VALUE) {
+            return "busy-spin";
+        }
+        if (maxYields == Integer.MAX_VALUE) {
+            return "spin-then-yield(" + maxSpins + ")";
+        }
+        return "backoff(" + maxSpins + ", " + maxYields + ", " + minParkNanos + "ns-" + maxParkNanos + "ns)";
+    }
+}
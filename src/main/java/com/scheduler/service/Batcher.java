@@ -0,0 +1,134 @@
+package com.scheduler.service;
+
+import com.scheduler.task.BatchHandler;
+import com.scheduler.task.BatchTask;
+import com.scheduler.task.ExecutionClass;
+import com.scheduler.task.Priority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects batch tasks for one batch key until the batch is full or has
+ * lingered long enough, then processes the whole batch in one handler call.
+ */
+class Batcher<T> {
+
+    /**
+     * Callback used to start the linger timer of a new batch.
+     */
+    interface LingerTimer {
+        void start(long generation, Priority priority, ExecutionClass executionClass);
+    }
+
+    private final BatchHandler<T> handler;
+    private final int maxBatchSize;
+    private final long maxLingerMs;
+
+    // Starts a linger timer for the batch of the given generation
+    private final LingerTimer lingerTimer;
+
+    // Batch currently being filled (guarded by this)
+    private List<BatchTask<T>> pending;
+
+    // Incremented every time a batch is drained, so a stale linger timer can
+    // tell that the batch it was started for is already gone
+    private long generation;
+
+    Batcher(BatchHandler<T> handler, int maxBatchSize, long maxLingerMs, LingerTimer lingerTimer) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.handler = handler;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerMs = maxLingerMs;
+        this.lingerTimer = lingerTimer;
+        this.pending = new ArrayList<>(maxBatchSize);
+    }
+
+    long getMaxLingerMs() {
+        return maxLingerMs;
+    }
+
+    /**
+     * Adds a task to the current batch, starting the linger timer if it is
+     * the first task of a new batch.
+     *
+     * @return the full batch if this task completed it, otherwise null.
+     */
+    synchronized List<BatchTask<T>> add(BatchTask<T> task) {
+        pending.add(task);
+        if (pending.size() >= maxBatchSize) {
+            return drain();
+        }
+        if (pending.size() == 1) {
+            lingerTimer.start(generation, task.getPriority(), task.getExecutionClass());
+        }
+        return null;
+    }
+
+    /**
+     * Drains the current batch if it is still the one from the given
+     * generation.
+     *
+     * @return the batch, or null if it was already flushed.
+     */
+    synchronized List<BatchTask<T>> drainIfGeneration(long expected) {
+        if (generation != expected || pending.isEmpty()) {
+            return null;
+        }
+        return drain();
+    }
+
+    /**
+     * Drains whatever is currently collected (used on shutdown).
+     */
+    synchronized List<BatchTask<T>> drainAll() {
+        return pending.isEmpty() ? null : drain();
+    }
+
+    private List<BatchTask<T>> drain() {
+        List<BatchTask<T>> batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+        generation++;
+        return batch;
+    }
+
+    /**
+     * Runs the handler for a drained batch, stamping every item with the
+     * batch's start and end time and its outcome, and then running each
+     * item's completion callback. Callbacks run even if the handler threw, and
+     * one failing callback does not keep the others from running. A handler
+     * exception is rethrown once all callbacks have run.
+     */
+    void process(List<BatchTask<T>> batch) {
+        List<T> payloads = new ArrayList<>(batch.size());
+        long start = System.nanoTime();
+        for (BatchTask<T> task : batch) {
+            task.setExecutionStartTime(start);
+            payloads.add(task.getPayload());
+        }
+        RuntimeException failure = null;
+        try {
+            handler.handle(payloads);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        long end = System.nanoTime();
+        for (BatchTask<T> task : batch) {
+            task.setExecutionEndTime(end);
+            task.setFailure(failure);
+            try {
+                task.getAction().run();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    task.setFailure(e);
+                }
+                System.err.println("Error running batch completion callback: " + e.getMessage());
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.scheduler.service;
+
+import com.scheduler.task.Task;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits inside the queue's own blocking poll.
+ */
+class BlockingIdleStrategy implements IdleStrategy {
+
+    @Override
+    public Task poll(BlockingQueue<Task> queue) throws InterruptedException {
+        return queue.poll(MAX_WAIT_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "blocking";
+    }
+}
@@ -0,0 +1,64 @@
+package com.scheduler.service;
+
+import com.scheduler.task.Task;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how an idle worker waits for its next task.
+ *
+ * Blocking is cheapest on CPU but every handoff pays a full park/unpark.
+ * Spinning strategies trade CPU for lower wakeup latency. Implementations are
+ * stateless, so one instance can be shared by any number of workers.
+ */
+public interface IdleStrategy {
+
+    // Upper bound on a single wait, so workers regularly re-check shutdown
+    long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Waits for the next task.
+     *
+     * @param queue Queue to take tasks from.
+     * @return The next task, or null if none arrived within about one second.
+     * @throws InterruptedException if the worker was interrupted while idle.
+     */
+    Task poll(BlockingQueue<Task> queue) throws InterruptedException;
+
+    /**
+     * Parks in the queue until a task arrives (the default).
+     */
+    static IdleStrategy blocking() {
+        return new BlockingIdleStrategy();
+    }
+
+    /**
+     * Spins on the queue without ever giving up the core. Lowest latency, but
+     * each idle worker burns a full CPU.
+     */
+    static IdleStrategy busySpin() {
+        return new BackoffIdleStrategy(Integer.MAX_VALUE, 0, 0, 0);
+    }
+
+    /**
+     * Spins for a while, then keeps yielding the core between polls.
+     *
+     * @param spins Number of spin iterations before yielding.
+     */
+    static IdleStrategy spinThenYield(int spins) {
+        return new BackoffIdleStrategy(spins, Integer.MAX_VALUE, 0, 0);
+    }
+
+    /**
+     * Spins, then yields, then parks for progressively longer periods.
+     *
+     * @param spins        Number of spin iterations.
+     * @param yields       Number of yield iterations after spinning.
+     * @param minParkNanos First park period.
+     * @param maxParkNanos Park period is doubled up to this limit.
+     */
+    static IdleStrategy backoff(int spins, int yields, long minParkNanos, long maxParkNanos) {
+        return new BackoffIdleStrategy(spins, yields, minParkNanos, maxParkNanos);
+    }
+}
@@ -0,0 +1,156 @@
+package com.scheduler.service;
+
+import com.scheduler.task.Task;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket used by the scheduler at dispatch time.
+ *
+ * The bucket is stored as a single "theoretical arrival time" (GCRA form of a
+ * token bucket), so acquiring a permit is one CAS on an AtomicLong and never
+ * blocks the caller.
+ *
+ * Tasks may reserve future permits only up to a short horizon ahead. Tasks
+ * beyond it wait in a backlog ordered like the ready queue and are let back
+ * in as slots open up, so a later high-priority task never queues behind a
+ * long run of low-priority reservations.
+ */
+public class RateLimiter {
+
+    // Nanoseconds needed to refill one token
+    private final long intervalNanos;
+
+    // How far ahead of "now" the arrival time may run (burst * interval)
+    private final long burstNanos;
+
+    // Shortest reservation horizon; the delay queue works in milliseconds, so
+    // a shorter one could not keep fast limits busy
+    private static final long MIN_HORIZON_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // How far ahead of "now" a permit may be reserved
+    private final long horizonNanos;
+
+    // Tasks that found every slot within the horizon taken, most urgent first
+    private final PriorityBlockingQueue<Task> backlog;
+
+    // Set while a wake-up for the backlog is pending
+    private final AtomicBoolean wakeupScheduled;
+
+    // Theoretical arrival time of the next permit; the bucket is full when it
+    // is at or before "now"
+    private final AtomicLong arrivalTime;
+
+    /**
+     * @param permitsPerSecond Sustained rate.
+     * @param burst            Maximum number of permits that can be taken at once
+     *                         after an idle period.
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.horizonNanos = Math.max(burstNanos, MIN_HORIZON_NANOS);
+        this.arrivalTime = new AtomicLong(System.nanoTime());
+        this.backlog = new PriorityBlockingQueue<>();
+        this.wakeupScheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * Tries to take one permit without blocking.
+     *
+     * @return 0 if a permit was taken, otherwise the number of nanoseconds until
+     *         a permit becomes available.
+     */
+    public long tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrivalTime.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                // Bucket is empty
+                return next - now - burstNanos;
+            }
+            if (arrivalTime.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return The earliest System.nanoTime() at which a permit is available,
+     *         without taking it.
+     */
+    public long nextPermitTime() {
+        long now = System.nanoTime();
+        long earliest = arrivalTime.get() + intervalNanos - burstNanos;
+        return earliest - now > 0 ? earliest : now;
+    }
+
+    /**
+     * Takes the first permit available at or after {@code notBefore}, even if
+     * it lies in the future. A caller that cannot run yet reserves its own
+     * slot this way, so a backlog is released one task per permit instead of
+     * every waiting task retrying at the same instant.
+     *
+     * @param notBefore Earliest acceptable permit time (System.nanoTime()).
+     * @return Nanoseconds from now until the reserved permit, or 0 if it is
+     *         available now.
+     */
+    public long reserve(long notBefore) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrivalTime.get();
+            long at = Math.max(now, notBefore);
+            long earliest = current + intervalNanos - burstNanos;
+            if (earliest - at > 0) {
+                at = earliest;
+            }
+            long next = Math.max(current, at) + intervalNanos;
+            if (arrivalTime.compareAndSet(current, next)) {
+                return Math.max(0, at - now);
+            }
+        }
+    }
+
+    long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * @return How far ahead of now a permit may be reserved.
+     */
+    long getHorizonNanos() {
+        return horizonNanos;
+    }
+
+    /**
+     * @return The number of permits not yet taken within the reservation
+     *         horizon.
+     */
+    int openSlots() {
+        long now = System.nanoTime();
+        long free = now + horizonNanos - nextPermitTime();
+        return free < 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, free / intervalNanos + 1);
+    }
+
+    PriorityBlockingQueue<Task> getBacklog() {
+        return backlog;
+    }
+
+    AtomicBoolean getWakeupScheduled() {
+        return wakeupScheduled;
+    }
+
+    public double getPermitsPerSecond() {
+        return (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos;
+    }
+}
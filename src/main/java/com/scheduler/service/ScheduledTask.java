@@ -0,0 +1,67 @@
+package com.scheduler.service;
+
+import com.scheduler.task.Task;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Wrapper for DelayQueue to handle timing.
+ * The clock is pluggable so the same delay logic can run on the wall clock
+ * (TaskScheduler) or on a virtual clock (VirtualClockSimulator).
+ */
+class ScheduledTask implements Delayed {
+    private static final LongSupplier WALL_CLOCK = System::currentTimeMillis;
+
+    private final Task task;
+    private final long triggerTime;
+
+    // Current time in milliseconds
+    private final LongSupplier clock;
+
+    public ScheduledTask(Task task) {
+        this(task, task.getExecutionTime());
+    }
+
+    public ScheduledTask(Task task, long delayMs) {
+        this(task, delayMs, WALL_CLOCK);
+    }
+
+    public ScheduledTask(Task task, long delayMs, LongSupplier clock) {
+        this.task = task;
+        this.clock = clock;
+        // Convert delay duration to absolute trigger time
+        this.triggerTime = clock.getAsLong() + delayMs;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * @return Absolute trigger time in milliseconds on this task's clock.
+     */
+    public long getTriggerTime() {
+        return triggerTime;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        long diff = triggerTime - clock.getAsLong();
+        return unit.convert(diff, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+        if (this == o)
+            return 0;
+        if (o instanceof ScheduledTask) {
+            // Compare trigger times directly: cheaper than reading the clock
+            // twice, and two reads could straddle a tick and misorder ties
+            return Long.compare(triggerTime, ((ScheduledTask) o).triggerTime);
+        }
+        long diff = this.getDelay(TimeUnit.MILLISECONDS) - o.getDelay(TimeUnit.MILLISECONDS);
+        return Long.compare(diff, 0);
+    }
+}
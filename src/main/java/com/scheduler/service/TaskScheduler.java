@@ -1,88 +1,676 @@
 package com.scheduler.service;
 
+import com.scheduler.metrics.SchedulerStats;
+import com.scheduler.task.BatchHandler;
+import com.scheduler.task.BatchTask;
+import com.scheduler.task.ExecutionClass;
+import com.scheduler.task.ForkContext;
+import com.scheduler.task.PooledTask;
+import com.scheduler.task.Priority;
+import com.scheduler.task.SplittableTask;
 import com.scheduler.task.Task;
+import com.scheduler.trace.SchedulerTracing;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * A custom multi-threaded task scheduler.
  * Supports:
  * - Priority-based execution (High > Medium > Low).
  * - Delayed execution.
+ * - Dispatch-time rate limiting per priority or task type.
+ * - Micro-batching of small tasks that share a batch key.
+ * - Fork/join of splittable tasks with helping joins.
+ * - Execution timeouts enforced by a watchdog thread.
+ * - Pluggable idle strategies (block, spin, yield, backoff) for workers.
+ * - Isolated worker pools (bulkheads) per execution class.
+ * - Predictive admission control that sheds tasks whose estimated wait is
+ *   over their priority's budget.
+ * - Pooled, reusable tasks that are recycled after they run.
+ * - JDK Flight Recorder events for the task lifecycle.
+ * - Lock-free statistics (counters, queue depths, latency histograms).
  * - Graceful shutdown.
  */
 public class TaskScheduler {
 
-    // Main queue for ready-to-execute tasks
-    private final BlockingQueue<Task> taskQueue;
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    // Name of the pool created by the constructor
+    private static final String DEFAULT_POOL = "default";
+
+    // Worker pools, each with its own ready queue and workers
+    private final List<WorkerPool> pools;
+
+    // Pool serving each execution class, indexed by ordinal; replaced
+    // wholesale when a class is isolated
+    private volatile WorkerPool[] routes;
 
     // Holding area for delayed tasks
     private final DelayQueue<ScheduledTask> delayQueue;
 
-    // Worker threads
-    private final List<Thread> workers;
-
     // Poller thread to move tasks from delayQueue to taskQueue
     private final Thread delayDispatcher;
 
     private final AtomicBoolean isShutdown;
 
+    // Set once shutdown has handed pending batches and rate-limited tasks to
+    // the ready queues; workers keep running until then
+    private volatile boolean shutdownHandoffDone;
+
+    // Dispatch-time rate limits, keyed by priority and by task type tag
+    private final Map<Priority, RateLimiter> priorityLimiters;
+    private final Map<String, RateLimiter> typeLimiters;
+
+    // Rate-limited tasks parked until a permit they already reserved
+    private final Set<Task> reservedPermits;
+
+    // Batch collectors, keyed by batch key
+    private final Map<String, Batcher<?>> batchers;
+
+    // How often the watchdog scans the workers for tasks past their timeout
+    private static final long WATCHDOG_INTERVAL_MS = 50;
+
+    // Watchdog thread enforcing execution timeouts
+    private final Thread watchdog;
+
+    // Default execution timeout in ms per priority ordinal (0 = none)
+    private final AtomicLongArray priorityTimeouts;
+
+    // Admission wait budget in ms per priority ordinal (0 = admit everything)
+    private final AtomicLongArray admissionBudgets;
+
+    // Whether a worker stuck on a timed-out task is replaced by a fresh one
+    private volatile boolean replaceStuckWorkers;
+
+    // Counters, queue depths and latency histograms across all pools
+    private final SchedulerStats stats;
+
+    // Worker running on the current thread, so tasks helped during a join
+    // are published to the watchdog like any other task
+    private final ThreadLocal<Worker> currentWorker;
+
     /**
      * @param threadCount Number of worker threads to start.
      */
     public TaskScheduler(int threadCount) {
-        this.taskQueue = new PriorityBlockingQueue<>();
+        this(threadCount, IdleStrategy.blocking());
+    }
+
+    /**
+     * @param threadCount  Number of worker threads to start.
+     * @param idleStrategy How idle workers wait for the next task.
+     */
+    public TaskScheduler(int threadCount, IdleStrategy idleStrategy) {
+        this.pools = new CopyOnWriteArrayList<>();
         this.delayQueue = new DelayQueue<>();
-        this.workers = new ArrayList<>(threadCount);
         this.isShutdown = new AtomicBoolean(false);
+        this.priorityLimiters = new ConcurrentHashMap<>();
+        this.typeLimiters = new ConcurrentHashMap<>();
+        this.reservedPermits = ConcurrentHashMap.newKeySet();
+        this.batchers = new ConcurrentHashMap<>();
+        this.priorityTimeouts = new AtomicLongArray(PRIORITIES.length);
+        this.admissionBudgets = new AtomicLongArray(PRIORITIES.length);
+        this.stats = new SchedulerStats();
+        this.currentWorker = new ThreadLocal<>();
 
-        // Initialize and start worker threads
+        // Initialize and start worker threads; every execution class shares
+        // this pool until it is isolated
+        WorkerPool defaultPool = new WorkerPool(DEFAULT_POOL, "Scheduler-Worker-", false);
+        pools.add(defaultPool);
+        WorkerPool[] initialRoutes = new WorkerPool[ExecutionClass.values().length];
+        Arrays.fill(initialRoutes, defaultPool);
+        this.routes = initialRoutes;
         for (int i = 0; i < threadCount; i++) {
-            Thread worker = new Thread(new Worker(), "Scheduler-Worker-" + i);
-            workers.add(worker);
-            worker.start();
+            defaultPool.startWorker(idleStrategy);
         }
 
         // Initialize and start delay dispatcher
         this.delayDispatcher = new Thread(new DelayDispatcher(), "Delay-Dispatcher");
         this.delayDispatcher.start();
+
+        // Initialize and start watchdog
+        this.watchdog = new Thread(new Watchdog(), "Scheduler-Watchdog");
+        this.watchdog.setDaemon(true);
+        this.watchdog.start();
+    }
+
+    /**
+     * Creates a scheduler with separate pools (bulkheads) for CPU-bound and
+     * blocking tasks, so blocked tasks can never occupy the workers CPU-bound
+     * ones need. CPU tasks run on one worker per core; blocking tasks run on
+     * their own, usually larger, pool of virtual threads where the JDK has
+     * them (Java 21+) and platform threads otherwise.
+     * 
+     * @param blockingThreads Number of workers for blocking tasks.
+     */
+    public static TaskScheduler withBulkheads(int blockingThreads) {
+        TaskScheduler scheduler = new TaskScheduler(Runtime.getRuntime().availableProcessors());
+        scheduler.isolate(ExecutionClass.BLOCKING, blockingThreads, IdleStrategy.blocking(), true);
+        return scheduler;
+    }
+
+    /**
+     * Starts an extra group of workers in the default pool, sharing its queue
+     * but waiting with their own idle strategy, e.g. a couple of spinning
+     * workers for latency-critical HIGH tasks next to the regular blocking
+     * ones.
+     * 
+     * @param threadCount  Number of workers in the group.
+     * @param idleStrategy How the group's workers wait for the next task.
+     * @throws IllegalStateException if the scheduler is shut down.
+     */
+    public void addWorkerGroup(int threadCount, IdleStrategy idleStrategy) {
+        if (isShutdown.get()) {
+            throw new IllegalStateException("Scheduler is shut down. Cannot add workers.");
+        }
+        for (int i = 0; i < threadCount; i++) {
+            pools.get(0).startWorker(idleStrategy);
+        }
+    }
+
+    /**
+     * Gives an execution class its own worker pool with a separate ready
+     * queue, workers, idle strategy and statistics. Tasks of that class
+     * submitted afterwards only run there; tasks already queued finish in the
+     * default pool.
+     * 
+     * @param executionClass The class to isolate.
+     * @param threadCount    Number of workers in the pool.
+     * @param idleStrategy   How the pool's workers wait for the next task.
+     * @throws IllegalStateException if the scheduler is shut down or the class
+     *                               already has its own pool.
+     */
+    public void isolate(ExecutionClass executionClass, int threadCount, IdleStrategy idleStrategy) {
+        isolate(executionClass, threadCount, idleStrategy, false);
+    }
+
+    /**
+     * Like {@link #isolate(ExecutionClass, int, IdleStrategy)}, optionally
+     * running the pool on virtual threads, which makes large pools of
+     * blocking workers cheap. Platform threads are used where the JDK has no
+     * virtual threads.
+     * 
+     * @param virtualThreads Whether to use virtual threads.
+     */
+    public synchronized void isolate(ExecutionClass executionClass, int threadCount, IdleStrategy idleStrategy,
+            boolean virtualThreads) {
+        if (isShutdown.get()) {
+            throw new IllegalStateException("Scheduler is shut down. Cannot add workers.");
+        }
+        WorkerPool[] current = routes;
+        if (current[executionClass.ordinal()] != pools.get(0)) {
+            throw new IllegalStateException("Execution class already has its own pool: " + executionClass);
+        }
+        String name = executionClass.name().toLowerCase();
+        String label = executionClass.name().charAt(0) + name.substring(1);
+        WorkerPool pool = new WorkerPool(name, "Scheduler-" + label + "-Worker-", virtualThreads);
+        for (int i = 0; i < threadCount; i++) {
+            pool.startWorker(idleStrategy);
+        }
+        pools.add(pool);
+        WorkerPool[] updated = current.clone();
+        updated[executionClass.ordinal()] = pool;
+        routes = updated;
+    }
+
+    private WorkerPool poolFor(Task task) {
+        return routes[task.getExecutionClass().ordinal()];
     }
 
     /**
      * Submits a task for execution.
      * 
      * @param task The task to run.
-     * @throws IllegalStateException if the scheduler is shut down.
+     * @throws IllegalStateException      if the scheduler is shut down.
+     * @throws RejectedExecutionException if admission control sheds the task
+     *                                    because its estimated wait is over
+     *                                    budget.
      */
     public void submit(Task task) {
         if (isShutdown.get()) {
+            stats.onRejected(task.getPriority());
+            SchedulerTracing.rejected(task, "shutdown");
             throw new IllegalStateException("Scheduler is shut down. Cannot accept new tasks.");
         }
+        if (task instanceof PooledTask) {
+            // Catches stale references before they can run another acquisition
+            ((PooledTask) task).markSubmitted();
+        }
+        if (task.getExecutionTime() == 0 && !(task instanceof BatchTask)) {
+            admit(task);
+        }
+
+        stats.onSubmitted(task.getPriority());
+        SchedulerTracing.submitted(task);
 
-        if (task.getExecutionTime() > 0) {
+        if (task instanceof SplittableTask) {
+            // Children are forked into, and joins help from, the parent's pool
+            ((SplittableTask) task).bind(poolFor(task));
+        }
+
+        if (task instanceof BatchTask) {
+            // Collected with its peers and dispatched as part of a batch
+            submitToBatch((BatchTask<?>) task);
+        } else if (task.getExecutionTime() > 0) {
             // Task has a delay, put in DelayQueue
-            delayQueue.offer(new ScheduledTask(task));
+            enqueueDelayed(new ScheduledTask(task));
         } else {
             // No delay, ready to run directly
-            taskQueue.offer(task);
+            enqueue(task);
+        }
+    }
+
+    /**
+     * Checks a ready task against the admission budget of its priority and
+     * throws if its estimated wait is over it. Delayed and batch tasks are
+     * not checked: the queue they will eventually join is not the one
+     * visible now.
+     */
+    private void admit(Task task) {
+        Priority priority = task.getPriority();
+        WorkerPool pool = poolFor(task);
+        long budget = pool.admission.getBudgetNanos(priority);
+        // Clear any estimate left from an earlier submission of the same task
+        task.setEstimatedWaitNanos(-1);
+        if (budget == 0) {
+            return;
+        }
+
+        long estimate = pool.estimateWaitNanos(priority);
+        if (estimate > budget) {
+            stats.onShed(priority);
+            pool.stats.onShed(priority);
+            SchedulerTracing.rejected(task, "overload");
+            throw new RejectedExecutionException("Estimated wait of " + TimeUnit.NANOSECONDS.toMillis(estimate)
+                    + " ms exceeds the " + TimeUnit.NANOSECONDS.toMillis(budget) + " ms budget for "
+                    + priority + " tasks.");
+        }
+        task.setEstimatedWaitNanos(estimate);
+    }
+
+    /**
+     * Puts a task in the ready queue of the pool serving its execution class.
+     */
+    private void enqueue(Task task) {
+        poolFor(task).enqueue(task);
+    }
+
+    private void enqueueDelayed(ScheduledTask scheduled) {
+        stats.onDelayedEnqueued(scheduled.getTask().getPriority());
+        delayQueue.offer(scheduled);
+    }
+
+    /**
+     * @return Live statistics; call {@link SchedulerStats#snapshot(int)} or
+     *         {@link #getStatsSnapshot()} to read them consistently.
+     */
+    public SchedulerStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return A point-in-time copy of the scheduler's statistics.
+     */
+    public SchedulerStats.Snapshot getStatsSnapshot() {
+        return stats.snapshot(getWorkerCount());
+    }
+
+    /**
+     * @return A point-in-time copy of the statistics of the pool serving the
+     *         given execution class. Pools only record ready-queue, execution,
+     *         rate-limit and timeout figures; submissions and delays are
+     *         counted scheduler-wide.
+     */
+    public SchedulerStats.Snapshot getPoolStatsSnapshot(ExecutionClass executionClass) {
+        return routes[executionClass.ordinal()].snapshot();
+    }
+
+    /**
+     * @return Point-in-time statistics of every pool, keyed by pool name.
+     */
+    public Map<String, SchedulerStats.Snapshot> getPoolStatsSnapshots() {
+        Map<String, SchedulerStats.Snapshot> snapshots = new LinkedHashMap<>();
+        for (WorkerPool pool : pools) {
+            snapshots.put(pool.name, pool.snapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * @return Number of live workers across all pools.
+     */
+    public int getWorkerCount() {
+        int count = 0;
+        for (WorkerPool pool : pools) {
+            count += pool.workers.size();
+        }
+        return count;
+    }
+
+    /**
+     * Registers the handler for batch tasks with the given key.
+     * Tasks are collected until {@code maxBatchSize} of them are pending or the
+     * oldest has waited {@code maxLingerMs}, whichever comes first, and are then
+     * handed to the handler in a single call on one worker.
+     * 
+     * @param batchKey     Key used by {@link BatchTask}s for this handler.
+     * @param handler      Processes the payloads of a batch.
+     * @param maxBatchSize Maximum number of tasks in one batch.
+     * @param maxLingerMs  Maximum time the first task of a batch may wait for
+     *                     others to join it.
+     */
+    public <T> void registerBatchHandler(String batchKey, BatchHandler<T> handler, int maxBatchSize,
+            long maxLingerMs) {
+        batchers.put(batchKey, new Batcher<>(handler, maxBatchSize, maxLingerMs,
+                (generation, priority, executionClass) ->
+                        startLingerTimer(batchKey, generation, priority, executionClass)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void submitToBatch(BatchTask<T> task) {
+        Batcher<T> batcher = (Batcher<T>) batchers.get(task.getBatchKey());
+        if (batcher == null) {
+            throw new IllegalArgumentException("No batch handler registered for key: " + task.getBatchKey());
+        }
+        List<BatchTask<T>> batch = batcher.add(task);
+        if (batch != null) {
+            enqueue(newBatchRun(task.getBatchKey(), batcher, batch));
+        }
+    }
+
+    /**
+     * Schedules a flush of the batch of the given generation after the linger
+     * time. If the batch filled up in the meantime, the flush does nothing.
+     */
+    private void startLingerTimer(String batchKey, long generation, Priority priority,
+            ExecutionClass executionClass) {
+        Batcher<?> batcher = batchers.get(batchKey);
+        BatchRun<?> flush = new BatchRun<>(batcher, generation, priority, batchKey);
+        flush.setExecutionClass(executionClass);
+        enqueueDelayed(new ScheduledTask(flush, batcher.getMaxLingerMs()));
+    }
+
+    private <T> Task newBatchRun(String batchKey, Batcher<T> batcher, List<BatchTask<T>> batch) {
+        Priority priority = Priority.LOW;
+        for (BatchTask<T> task : batch) {
+            if (task.getPriority().compareTo(priority) < 0) {
+                priority = task.getPriority();
+            }
+        }
+        Task run = new BatchRun<>(batcher, batch, priority, batchKey);
+        run.setExecutionClass(batch.get(0).getExecutionClass());
+        return run;
+    }
+
+    /**
+     * Sets the default execution timeout for tasks of a priority. A task
+     * running longer than this is interrupted by the watchdog. A per-task
+     * timeout ({@link Task#setExecutionTimeoutMs(long)}) takes precedence.
+     * 
+     * @param priority  The priority.
+     * @param timeoutMs Timeout in ms, or 0 for no timeout.
+     */
+    public void setExecutionTimeout(Priority priority, long timeoutMs) {
+        priorityTimeouts.set(priority.ordinal(), timeoutMs);
+    }
+
+    /**
+     * Sets how long a task of a priority may be expected to wait in its
+     * pool's ready queue. A ready task whose estimated wait exceeds this is
+     * refused by {@link #submit(Task)} with a RejectedExecutionException
+     * instead of being queued, which keeps accepted work within its SLO under
+     * overload. Giving lower priorities smaller budgets makes them shed first.
+     * 
+     * @param priority The priority.
+     * @param budgetMs Budget in ms, or 0 to admit every task.
+     */
+    public void setAdmissionBudget(Priority priority, long budgetMs) {
+        admissionBudgets.set(priority.ordinal(), budgetMs);
+    }
+
+    /**
+     * @return Number of tasks of the priority shed by admission control.
+     */
+    public long getShedTaskCount(Priority priority) {
+        return stats.getShedCount(priority);
+    }
+
+    /**
+     * @param replace If true, a worker whose task timed out is retired and a
+     *                replacement worker is started, so capacity holds steady
+     *                even if the stuck task ignores the interrupt.
+     */
+    public void setReplaceStuckWorkers(boolean replace) {
+        this.replaceStuckWorkers = replace;
+    }
+
+    /**
+     * @return Number of tasks interrupted for exceeding their timeout.
+     */
+    public long getTimedOutTaskCount() {
+        return stats.getTimedOutCount();
+    }
+
+    /**
+     * @return What every worker is currently running and for how long.
+     */
+    public List<WorkerSnapshot> getWorkerSnapshots() {
+        long now = System.nanoTime();
+        List<WorkerSnapshot> snapshots = new ArrayList<>();
+        for (WorkerPool pool : pools) {
+            for (Worker worker : pool.workers) {
+                Task task = worker.currentTask;
+                long runningForMs = task != null ? TimeUnit.NANOSECONDS.toMillis(now - worker.startNanos) : 0;
+                snapshots.add(new WorkerSnapshot(worker.thread.getName(), pool.name, task, runningForMs,
+                        worker.retired));
+            }
+        }
+        return snapshots;
+    }
+
+    private long resolveTimeoutMs(Task task) {
+        long timeout = task.getExecutionTimeoutMs();
+        return timeout > 0 ? timeout : priorityTimeouts.get(task.getPriority().ordinal());
+    }
+
+    /**
+     * Limits how fast tasks of a priority are dispatched to workers.
+     * Tasks over the limit stay out of the workers and are re-queued once a
+     * permit is available.
+     * 
+     * @param priority         The priority to limit.
+     * @param permitsPerSecond Sustained dispatch rate.
+     * @param burst            Number of tasks that may be dispatched back to back.
+     */
+    public void setRateLimit(Priority priority, double permitsPerSecond, int burst) {
+        releaseBacklog(priorityLimiters.put(priority, new RateLimiter(permitsPerSecond, burst)));
+    }
+
+    /**
+     * Limits how fast tasks with the given type tag are dispatched to workers.
+     * 
+     * @param type             The task type tag (see {@link Task#getType()}).
+     * @param permitsPerSecond Sustained dispatch rate.
+     * @param burst            Number of tasks that may be dispatched back to back.
+     */
+    public void setRateLimit(String type, double permitsPerSecond, int burst) {
+        releaseBacklog(typeLimiters.put(type, new RateLimiter(permitsPerSecond, burst)));
+    }
+
+    /**
+     * Removes the rate limit for a priority, if any.
+     */
+    public void clearRateLimit(Priority priority) {
+        releaseBacklog(priorityLimiters.remove(priority));
+    }
+
+    /**
+     * Removes the rate limit for a task type, if any.
+     */
+    public void clearRateLimit(String type) {
+        releaseBacklog(typeLimiters.remove(type));
+    }
+
+    /**
+     * Takes the task's permits from its type and priority limits. If none is
+     * available now, the task's own future slot is reserved instead, as long
+     * as it lies within the limiter's reservation horizon. Otherwise the task
+     * goes to the limiter's backlog, where more urgent tasks get ahead of it.
+     * 
+     * @return 0 if the task may run now, -1 if it was put in a backlog,
+     *         otherwise nanoseconds until its reserved permits are due.
+     */
+    private long acquirePermit(Task task) {
+        RateLimiter typeLimiter = task.getType() != null ? typeLimiters.get(task.getType()) : null;
+        RateLimiter priorityLimiter = priorityLimiters.get(task.getPriority());
+        if (typeLimiter == null && priorityLimiter == null) {
+            return 0;
+        }
+
+        // Both permits are reserved for the same instant, the first one both
+        // limits can serve, so neither limiter gives up a slot the task then
+        // does not use while it waits for the other.
+        long now = System.nanoTime();
+        long at = now;
+        if (typeLimiter != null) {
+            at = Math.max(at, typeLimiter.nextPermitTime());
+        }
+        if (priorityLimiter != null) {
+            at = Math.max(at, priorityLimiter.nextPermitTime());
+        }
+        if (!isShutdown.get()) {
+            // At shutdown every task reserves, so none is left in a backlog
+            RateLimiter full = beyondHorizon(typeLimiter, at - now);
+            if (full == null) {
+                full = beyondHorizon(priorityLimiter, at - now);
+            }
+            if (full != null) {
+                addToBacklog(full, task);
+                return -1;
+            }
+        }
+        long wait = 0;
+        if (typeLimiter != null) {
+            wait = typeLimiter.reserve(at);
+        }
+        if (priorityLimiter != null) {
+            wait = Math.max(wait, priorityLimiter.reserve(at));
+        }
+        return wait;
+    }
+
+    private static RateLimiter beyondHorizon(RateLimiter limiter, long wait) {
+        return limiter != null && wait > limiter.getHorizonNanos() ? limiter : null;
+    }
+
+    private void addToBacklog(RateLimiter limiter, Task task) {
+        stats.onDelayedEnqueued(task.getPriority());
+        limiter.getBacklog().offer(task);
+        scheduleBacklogWakeup(limiter, 0);
+        if (isShutdown.get()) {
+            // Shutdown may have released the backlogs before this task arrived
+            releaseBacklog(limiter);
+        }
+    }
+
+    /**
+     * Arranges for the dispatcher to let backlogged tasks back in once
+     * permits open up within the limiter's horizon, unless a wake-up is
+     * already pending.
+     * 
+     * @param notBeforeNanos Minimum delay of the wake-up.
+     */
+    private void scheduleBacklogWakeup(RateLimiter limiter, long notBeforeNanos) {
+        if (limiter.getBacklog().isEmpty() || !limiter.getWakeupScheduled().compareAndSet(false, true)) {
+            return;
+        }
+        long delay = limiter.nextPermitTime() - limiter.getHorizonNanos() - System.nanoTime();
+        delay = Math.max(delay, notBeforeNanos);
+        // Not counted as a delayed task: it is the backlog's timer, not work
+        delayQueue.offer(new ScheduledTask(new BacklogWakeup(limiter), delay > 0 ? ceilMillis(delay) : 0));
+    }
+
+    /**
+     * Runs on the dispatcher: moves as many of the most urgent backlogged
+     * tasks to the ready queue as there are open slots. They reserve their
+     * permits when a worker takes them.
+     */
+    private void wakeBacklog(RateLimiter limiter) {
+        limiter.getWakeupScheduled().set(false);
+        int slots = Math.max(1, limiter.openSlots());
+        for (int i = 0; i < slots; i++) {
+            Task task = limiter.getBacklog().poll();
+            if (task == null) {
+                break;
+            }
+            stats.onDelayedDequeued(task.getPriority());
+            enqueue(task);
+        }
+        // The released tasks have not reserved yet, so wait for the slots
+        // they will take before looking again
+        scheduleBacklogWakeup(limiter, slots * limiter.getIntervalNanos());
+    }
+
+    /**
+     * Moves every backlogged task of a limiter that is being replaced or
+     * removed, or of any limiter at shutdown, to the ready queue.
+     */
+    private void releaseBacklog(RateLimiter limiter) {
+        if (limiter == null) {
+            return;
+        }
+        Task task;
+        while ((task = limiter.getBacklog().poll()) != null) {
+            stats.onDelayedDequeued(task.getPriority());
+            enqueue(task);
+        }
+    }
+
+    private static long ceilMillis(long nanos) {
+        return Math.max(1, (nanos + 999_999) / 1_000_000);
+    }
+
+    /**
+     * Moves a rate-limited task from the delay queue back to the ready
+     * queue ahead of its permit, unless the dispatcher already did.
+     */
+    private void releaseParked(ScheduledTask parked) {
+        if (delayQueue.remove(parked)) {
+            stats.onDelayedDequeued(parked.getTask().getPriority());
+            enqueue(parked.getTask());
         }
     }
 
     /**
      * Initiates a graceful shutdown.
      * New tasks will be rejected.
-     * Existing tasks in the queue will be processed.
+     * Existing tasks in the queue will be processed, including rate-limited
+     * ones, which then run without waiting for their permits.
      * Idle workers will be interrupted to finish.
      */
     public void shutdown() {
         if (isShutdown.compareAndSet(false, true)) {
+            // Partially filled batches would otherwise wait for a linger timer
+            // that the dispatcher no longer fires, so hand them to the workers now.
+            for (Map.Entry<String, Batcher<?>> entry : batchers.entrySet()) {
+                flushOnShutdown(entry.getKey(), entry.getValue());
+            }
+
             // Interrupt the dispatcher to stop waiting for new delays (optional, implies we
             // stop processing future delays)
             // However, typical graceful shutdown might want to finish pending delays?
@@ -90,45 +678,511 @@ public class TaskScheduler {
             // We'll interrupt the dispatcher so it exits when delayQueue is empty or
             // immediately.
             delayDispatcher.interrupt();
+            // Wait for it to stop, so it cannot hand over a task it already
+            // polled after the workers have left
+            try {
+                delayDispatcher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // Rate-limited tasks were already accepted and ready, so hand them
+            // to the workers instead of leaving them in the delay queue
+            for (ScheduledTask scheduled : delayQueue) {
+                if (reservedPermits.contains(scheduled.getTask())) {
+                    releaseParked(scheduled);
+                }
+            }
+            for (RateLimiter limiter : priorityLimiters.values()) {
+                releaseBacklog(limiter);
+            }
+            for (RateLimiter limiter : typeLimiters.values()) {
+                releaseBacklog(limiter);
+            }
+            shutdownHandoffDone = true;
 
             // Interrupt all workers to wake them up if they are idle (waiting on queue)
-            for (Thread worker : workers) {
-                worker.interrupt();
+            for (WorkerPool pool : pools) {
+                for (Worker worker : pool.workers) {
+                    worker.thread.interrupt();
+                }
+            }
+        }
+    }
+
+    private <T> void flushOnShutdown(String batchKey, Batcher<T> batcher) {
+        List<BatchTask<T>> batch = batcher.drainAll();
+        if (batch != null) {
+            enqueue(newBatchRun(batchKey, batcher, batch));
+        }
+    }
+
+    /**
+     * Timer entry in the delay queue that lets a rate limiter's backlog back
+     * in; handled by the dispatcher itself, never by a worker.
+     */
+    private static final class BacklogWakeup extends Task {
+        private final RateLimiter limiter;
+
+        BacklogWakeup(RateLimiter limiter) {
+            super(Priority.HIGH, 0, System.nanoTime());
+            this.limiter = limiter;
+        }
+    }
+
+    /**
+     * Runs one batch on a worker: a full batch handed over up front, or
+     * whatever a linger timer finds when it fires. The statistics count the
+     * batch's items as tasks and the run itself only as worker busy time,
+     * since each item was counted as submitted on its own.
+     */
+    private static final class BatchRun<T> extends Task {
+        private final Batcher<T> batcher;
+
+        // Generation a linger flush drains (unused when the batch is given)
+        private final long generation;
+
+        // Items processed by this run; null until a linger flush has drained
+        // them, and stays null if the batch was already gone
+        private volatile List<BatchTask<T>> batch;
+
+        BatchRun(Batcher<T> batcher, List<BatchTask<T>> batch, Priority priority, String batchKey) {
+            super(null, priority, 0, batchKey);
+            this.batcher = batcher;
+            this.generation = -1;
+            this.batch = batch;
+        }
+
+        BatchRun(Batcher<T> batcher, long generation, Priority priority, String batchKey) {
+            super(null, priority, 0, batchKey);
+            this.batcher = batcher;
+            this.generation = generation;
+        }
+
+        @Override
+        public Runnable getAction() {
+            return this::process;
+        }
+
+        private void process() {
+            if (batch == null) {
+                batch = batcher.drainIfGeneration(generation);
+            }
+            if (batch != null) {
+                batcher.process(batch);
+            }
+        }
+
+        List<BatchTask<T>> getBatch() {
+            return batch;
+        }
+    }
+
+    /**
+     * A bulkhead: workers with their own ready queue, idle strategies and
+     * statistics. Also the fork context of splittable tasks running in it, so
+     * forked children stay in their parent's pool and joins only help with
+     * that pool's work.
+     */
+    private class WorkerPool implements ForkContext {
+        private final String name;
+
+        // Prefix of the pool's worker thread names
+        private final String threadPrefix;
+
+        private final boolean virtualThreads;
+
+        // Ready-to-execute tasks of this pool
+        private final BlockingQueue<Task> taskQueue;
+
+        // Worker threads (the watchdog may add replacements for stuck ones)
+        private final List<Worker> workers;
+
+        // Source of unique worker thread names
+        private final AtomicInteger workerIds;
+
+        // This pool's share of the scheduler statistics
+        private final SchedulerStats stats;
+
+        // Wait estimates for the pool's admission checks
+        private final AdmissionController admission;
+
+        WorkerPool(String name, String threadPrefix, boolean virtualThreads) {
+            this.name = name;
+            this.threadPrefix = threadPrefix;
+            this.virtualThreads = virtualThreads;
+            this.taskQueue = new PriorityBlockingQueue<>();
+            this.workers = new CopyOnWriteArrayList<>();
+            this.workerIds = new AtomicInteger(0);
+            this.stats = new SchedulerStats();
+            this.admission = new AdmissionController(admissionBudgets);
+        }
+
+        void startWorker(IdleStrategy idleStrategy) {
+            Worker worker = new Worker(this, threadPrefix + workerIds.getAndIncrement(), idleStrategy);
+            workers.add(worker);
+            worker.thread.start();
+        }
+
+        /**
+         * Puts a task in this pool's ready queue. All ready-queue inserts go
+         * through here so the per-priority depths stay accurate.
+         */
+        void enqueue(Task task) {
+            TaskScheduler.this.stats.onReadyEnqueued(task.getPriority());
+            stats.onReadyEnqueued(task.getPriority());
+            task.setReadyTime(System.nanoTime());
+            taskQueue.offer(task);
+        }
+
+        /**
+         * Estimates the wait of a new ready task: it runs after every queued
+         * task of its own or a higher priority.
+         */
+        long estimateWaitNanos(Priority priority) {
+            long ahead = 0;
+            for (int i = 0; i <= priority.ordinal(); i++) {
+                ahead += stats.getReadyDepth(PRIORITIES[i]);
+            }
+            return admission.estimateWaitNanos(priority, ahead, stats.getBusyWorkers(), workers.size());
+        }
+
+        SchedulerStats.Snapshot snapshot() {
+            return stats.snapshot(workers.size());
+        }
+
+        @Override
+        public void fork(Task child) {
+            // Children of accepted work are queued even during shutdown
+            enqueue(child);
+        }
+
+        @Override
+        public boolean helpOnce() {
+            Task task = taskQueue.poll();
+            if (task == null) {
+                return false;
+            }
+            Worker worker = currentWorker.get();
+            if (worker != null && worker.pool == this) {
+                worker.runTracked(task);
+            } else {
+                execute(this, task, worker == null);
             }
+            return true;
         }
     }
 
     /**
-     * Worker logic: fetch tasks from priority queue and execute them.
+     * Worker logic: fetch tasks from its pool's priority queue and execute
+     * them.
      */
     private class Worker implements Runnable {
+        private final Thread thread;
+
+        // Pool this worker takes tasks from
+        private final WorkerPool pool;
+
+        // How this worker waits when the queue is empty
+        private final IdleStrategy idleStrategy;
+
+        // Task being run and when it started; read by the watchdog
+        private volatile Task currentTask;
+        private volatile long startNanos;
+
+        // Deadline of the current task (0 = no timeout)
+        private volatile long deadlineNanos;
+
+        // Set by the watchdog when it interrupts the current task
+        private volatile boolean timedOut;
+
+        // Set when the watchdog replaced this worker; it exits after its task
+        private volatile boolean retired;
+
+        Worker(WorkerPool pool, String name, IdleStrategy idleStrategy) {
+            this.pool = pool;
+            this.thread = WorkerThreads.newThread(this, name, pool.virtualThreads);
+            this.idleStrategy = idleStrategy;
+        }
+
         @Override
         public void run() {
-            while (true) {
+            currentWorker.set(this);
+            try {
+                loop();
+            } finally {
+                currentWorker.remove();
+                pool.workers.remove(this);
+            }
+        }
+
+        private void loop() {
+            while (!retired) {
                 // Shutdown condition: flag is set AND queue is empty.
-                if (isShutdown.get() && taskQueue.isEmpty()) {
+                if (isShutdown.get() && shutdownHandoffDone && pool.taskQueue.isEmpty()) {
                     break;
                 }
 
                 try {
-                    // Poll with timeout to periodically check shutdown status (or rely on
+                    // Wait (bounded) to periodically check shutdown status (or rely on
                     // interrupt)
-                    Task task = taskQueue.poll(1, TimeUnit.SECONDS);
+                    Task task = idleStrategy.poll(pool.taskQueue);
                     if (task != null) {
-                        task.setExecutionStartTime(System.nanoTime());
-                        task.getAction().run();
+                        runTracked(task);
                     }
                 } catch (InterruptedException e) {
                     // If interrupted, loop back to check condition.
                     // If shutdown is true, we will likely exit if queue is empty.
-                    // Preserve interrupt status just in case, though we handle it by loop logic.
-                    Thread.currentThread().interrupt();
-                } catch (Exception e) {
-                    System.err.println("Error executing task: " + e.getMessage());
-                    e.printStackTrace();
+                    // The interrupt status is not restored: it would make every
+                    // following poll throw at once, so a worker could never drain
+                    // tasks still queued at shutdown (e.g. already-joined children).
                 }
             }
         }
+
+        /**
+         * Runs a task while publishing it to the watchdog. Re-entered when a
+         * joining task helps run queued work; the helped task then gets its
+         * own timeout, and the joining task is published again afterwards.
+         */
+        private void runTracked(Task task) {
+            long timeoutMs = resolveTimeoutMs(task);
+            long now = System.nanoTime();
+            Task outerTask;
+            long outerStartNanos;
+            long outerDeadlineNanos;
+            boolean outerTimedOut;
+            synchronized (this) {
+                outerTask = currentTask;
+                outerStartNanos = startNanos;
+                outerDeadlineNanos = deadlineNanos;
+                outerTimedOut = timedOut;
+                startNanos = now;
+                deadlineNanos = timeoutMs > 0 ? now + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : 0;
+                timedOut = false;
+                currentTask = task;
+            }
+            try {
+                // Only the outermost run counts the worker as busy
+                execute(pool, task, outerTask == null);
+            } finally {
+                synchronized (this) {
+                    if (timedOut && !isShutdown.get()) {
+                        // The task returned without consuming the watchdog's
+                        // interrupt; don't let it leak into the next task
+                        Thread.interrupted();
+                    }
+                    currentTask = outerTask;
+                    startNanos = outerStartNanos;
+                    deadlineNanos = outerDeadlineNanos;
+                    timedOut = outerTimedOut;
+                }
+            }
+        }
+
+        /**
+         * Interrupts the worker if it is still running the given task.
+         * Synchronized with the end of runTracked so a late interrupt never
+         * hits the following task.
+         */
+        synchronized boolean interruptIfRunning(Task task) {
+            if (currentTask != task) {
+                return false;
+            }
+            timedOut = true;
+            thread.interrupt();
+            return true;
+        }
+    }
+
+    /**
+     * Watchdog logic: periodically scan worker start timestamps and interrupt
+     * tasks that have run past their timeout. A single thread covers all
+     * workers, so timeouts cost nothing per task.
+     */
+    private class Watchdog implements Runnable {
+        @Override
+        public void run() {
+            while (!isShutdown.get() || getWorkerCount() > 0) {
+                try {
+                    Thread.sleep(WATCHDOG_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                scan(System.nanoTime());
+            }
+        }
+
+        private void scan(long now) {
+            for (WorkerPool pool : pools) {
+                for (Worker worker : pool.workers) {
+                    check(pool, worker, now);
+                }
+            }
+        }
+
+        private void check(WorkerPool pool, Worker worker, long now) {
+            Task task;
+            long deadline;
+            boolean timedOut;
+            // Read together: a join may be swapping in a helped task
+            synchronized (worker) {
+                task = worker.currentTask;
+                deadline = worker.deadlineNanos;
+                timedOut = worker.timedOut;
+            }
+            if (task == null || deadline == 0 || timedOut || now - deadline < 0) {
+                return;
+            }
+            if (!worker.interruptIfRunning(task)) {
+                return;
+            }
+
+            stats.onTimedOut();
+            pool.stats.onTimedOut();
+            System.err.println("Task timed out after "
+                    + TimeUnit.NANOSECONDS.toMillis(now - worker.startNanos) + " ms on "
+                    + worker.thread.getName() + ": " + task);
+
+            if (replaceStuckWorkers && !isShutdown.get()) {
+                // The replacement joins the same pool, so the bulkhead keeps its size
+                worker.retired = true;
+                pool.startWorker(worker.idleStrategy);
+            }
+        }
+    }
+
+    /**
+     * Runs a dequeued task on the calling thread, unless it is over its rate
+     * limit. Used by workers and by splittable tasks helping during a join.
+     * 
+     * @param outermost False if the thread is already busy running the task
+     *                  that called this (a join), so busy time is not counted
+     *                  twice.
+     */
+    private void execute(WorkerPool pool, Task task, boolean outermost) {
+        stats.onReadyDequeued(task.getPriority());
+        pool.stats.onReadyDequeued(task.getPriority());
+        if (task instanceof SplittableTask && ((SplittableTask) task).isStarted()) {
+            // Already run inline by a joining parent. It may be back from the
+            // delay queue after a rate-limit deferral; its reservation is no
+            // longer needed and must not pin it in reservedPermits.
+            if (!reservedPermits.isEmpty()) {
+                reservedPermits.remove(task);
+            }
+            return;
+        }
+        if (task instanceof PooledTask && !((PooledTask) task).isSubmittedGeneration()) {
+            // Released and reacquired since it was submitted: this entry is a
+            // stale submission and must not run the new acquisition's work
+            if (!reservedPermits.isEmpty()) {
+                reservedPermits.remove(task);
+            }
+            System.err.println("Error executing task: stale pooled task submission dropped: " + task);
+            return;
+        }
+
+        // A task coming back from the delay queue already holds its permit
+        long wait = reservedPermits.isEmpty() || !reservedPermits.remove(task) ? acquirePermit(task) : 0;
+        if (wait < 0) {
+            // Backlogged behind its limiter's reservations
+            stats.onRateLimited(task.getPriority());
+            pool.stats.onRateLimited(task.getPriority());
+            return;
+        }
+        if (wait > 0) {
+            // Over its rate limit: park it in the delay queue until its
+            // reserved slot instead of holding this worker, and move on to
+            // the next task.
+            stats.onRateLimited(task.getPriority());
+            pool.stats.onRateLimited(task.getPriority());
+            reservedPermits.add(task);
+            ScheduledTask parked = new ScheduledTask(task, ceilMillis(wait));
+            enqueueDelayed(parked);
+            if (isShutdown.get()) {
+                // Shutdown may have drained the delay queue before this entry
+                // arrived; accepted work must not be stranded there
+                releaseParked(parked);
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = false;
+        task.setExecutionStartTime(start);
+        // Traced only once the task really starts, so rate-limit deferrals
+        // don't add queue wait samples
+        SchedulerTracing.dequeued(task, start);
+        long waitNanos = start - task.getSubmissionTime() - TimeUnit.MILLISECONDS.toNanos(task.getExecutionTime());
+        if (outermost) {
+            stats.onWorkerBusy();
+            pool.stats.onWorkerBusy();
+        }
+        // A batch run is not a submitted task; its items are recorded instead.
+        // Forked children are not either: they are part of their root task's
+        // run, and are not counted whether a worker or a joining parent runs
+        // them.
+        BatchRun<?> batchRun = task instanceof BatchRun ? (BatchRun<?>) task : null;
+        boolean counted = batchRun == null
+                && !(task instanceof SplittableTask && ((SplittableTask) task).isChild());
+        if (counted) {
+            stats.onStarted(task.getPriority(), waitNanos);
+            pool.stats.onStarted(task.getPriority(), waitNanos);
+        }
+        if (task.getEstimatedWaitNanos() >= 0) {
+            stats.onWaitEstimateChecked(task.getPriority(), task.getEstimatedWaitNanos(), waitNanos);
+            pool.stats.onWaitEstimateChecked(task.getPriority(), task.getEstimatedWaitNanos(), waitNanos);
+            pool.admission.recordEstimateError(task.getPriority(), task.getEstimatedWaitNanos(), waitNanos);
+        }
+        SchedulerTracing.started(task);
+        try {
+            task.getAction().run();
+        } catch (Exception e) {
+            failed = true;
+            System.err.println("Error executing task: " + e.getMessage());
+            e.printStackTrace();
+        }
+        long end = System.nanoTime();
+        task.setExecutionEndTime(end);
+        if (counted) {
+            stats.onFinished(task.getPriority(), end - start, !failed);
+            pool.stats.onFinished(task.getPriority(), end - start, !failed);
+        } else if (batchRun != null) {
+            recordBatchItems(stats, batchRun.getBatch());
+            recordBatchItems(pool.stats, batchRun.getBatch());
+        }
+        if (outermost) {
+            stats.onWorkerIdle(end - start);
+            pool.stats.onWorkerIdle(end - start);
+        }
+        if (batchRun == null || batchRun.getBatch() != null) {
+            // A stale linger flush finds nothing to do; its near-zero run
+            // time would drag the service time average down
+            pool.admission.recordServiceTime(end - start);
+        }
+        SchedulerTracing.finished(task, end - start, failed);
+
+        if (task instanceof PooledTask) {
+            // Done with it: back to its pool for the next submission. A task
+            // submitted twice fails here on its second run; that is a caller
+            // bug and must not take the worker down with it.
+            try {
+                ((PooledTask) task).release();
+            } catch (IllegalStateException e) {
+                System.err.println("Error releasing pooled task: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void recordBatchItems(SchedulerStats stats, List<? extends BatchTask<?>> batch) {
+        if (batch == null) {
+            return;
+        }
+        for (BatchTask<?> item : batch) {
+            long start = item.getExecutionStartTime();
+            stats.onBatchItemFinished(item.getPriority(), start - item.getSubmissionTime(),
+                    item.getExecutionEndTime() - start, !item.isFailed());
+        }
     }
 
     /**
@@ -142,13 +1196,18 @@ public class TaskScheduler {
                     // Take blocks until an element is expired (ready)
                     ScheduledTask scheduled = delayQueue.poll(1, TimeUnit.SECONDS);
 
-                    if (scheduled != null) {
+                    if (scheduled != null && scheduled.getTask() instanceof BacklogWakeup) {
+                        wakeBacklog(((BacklogWakeup) scheduled.getTask()).limiter);
+                    } else if (scheduled != null) {
+                        stats.onDelayedDequeued(scheduled.getTask().getPriority());
+                        SchedulerTracing.delayFired(scheduled.getTask(),
+                                -scheduled.getDelay(TimeUnit.MILLISECONDS));
                         if (isShutdown.get()) {
                             // If shutdown, decided if we still queue it.
                             // "Wait for queue to empty" usually implies processing what we have.
-                            taskQueue.offer(scheduled.getTask());
+                            enqueue(scheduled.getTask());
                         } else {
-                            taskQueue.offer(scheduled.getTask());
+                            enqueue(scheduled.getTask());
                         }
                     } else {
                         // If null (timeout) and shutdown, we can exit if delay queue is empty
@@ -165,36 +1224,4 @@ public class TaskScheduler {
             }
         }
     }
-
-    /**
-     * Wrapper for DelayQueue to handle timing.
-     */
-    private static class ScheduledTask implements Delayed {
-        private final Task task;
-        private final long triggerTime;
-
-        public ScheduledTask(Task task) {
-            this.task = task;
-            // Convert delay duration to absolute trigger time
-            this.triggerTime = System.currentTimeMillis() + task.getExecutionTime();
-        }
-
-        public Task getTask() {
-            return task;
-        }
-
-        @Override
-        public long getDelay(TimeUnit unit) {
-            long diff = triggerTime - System.currentTimeMillis();
-            return unit.convert(diff, TimeUnit.MILLISECONDS);
-        }
-
-        @Override
-        public int compareTo(Delayed o) {
-            if (this == o)
-                return 0;
-            long diff = this.getDelay(TimeUnit.MILLISECONDS) - o.getDelay(TimeUnit.MILLISECONDS);
-            return Long.compare(diff, 0);
-        }
-    }
 }
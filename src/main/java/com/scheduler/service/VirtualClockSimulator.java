@@ -0,0 +1,343 @@
+package com.scheduler.service;
+
+import com.scheduler.metrics.LatencyHistogram;
+import com.scheduler.task.Priority;
+import com.scheduler.task.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Deterministic discrete-event simulation of the scheduler on a virtual clock.
+ *
+ * Uses the same policies as TaskScheduler: ready tasks are ordered by
+ * {@link Task#compareTo(Task)} and delayed tasks go through
+ * {@link ScheduledTask}, only with a virtual clock instead of the wall clock.
+ * Workers are simulated and task bodies are replaced by modeled service
+ * times, so a run with millions of tasks completes in seconds on one thread.
+ *
+ * Rate limits, batching, fork/join and timeouts are not modeled.
+ */
+public class VirtualClockSimulator {
+
+    /**
+     * Models how long a task runs on a worker.
+     */
+    @FunctionalInterface
+    public interface ServiceTimeModel {
+        long serviceTimeNanos(Priority priority);
+
+        /**
+         * Every task takes the same time.
+         */
+        static ServiceTimeModel fixed(long serviceTimeMs) {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(serviceTimeMs);
+            return priority -> nanos;
+        }
+
+        /**
+         * Exponentially distributed service times, reproducible from the seed.
+         */
+        static ServiceTimeModel exponential(double meanMs, long seed) {
+            Random rand = new Random(seed);
+            double meanNanos = meanMs * 1_000_000.0;
+            return priority -> (long) (-meanNanos * Math.log(1.0 - rand.nextDouble()));
+        }
+    }
+
+    private final int workerCount;
+    private final ServiceTimeModel serviceTimes;
+
+    // Submitted tasks in arrival order
+    private final List<SimTask> arrivals;
+
+    // Current virtual time in nanoseconds
+    private long now;
+
+    // Virtual wall clock handed to ScheduledTask
+    private final LongSupplier clockMillis = () -> now / 1_000_000;
+
+    private long lastArrival = Long.MIN_VALUE;
+    private long lastSubmission = Long.MIN_VALUE;
+    private long nextId;
+
+    /**
+     * @param workerCount  Number of simulated workers.
+     * @param serviceTimes Service time model for task bodies.
+     */
+    public VirtualClockSimulator(int workerCount, ServiceTimeModel serviceTimes) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("workerCount must be at least 1");
+        }
+        this.workerCount = workerCount;
+        this.serviceTimes = serviceTimes;
+        this.arrivals = new ArrayList<>();
+    }
+
+    /**
+     * Adds a task arriving at the given virtual time. Arrivals must be added in
+     * time order; tasks arriving at the same instant keep their submission
+     * order, as they would in the real queue.
+     *
+     * @param priority     Task priority.
+     * @param delayMs      Requested delay before the task becomes ready.
+     * @param arrivalNanos Virtual submission time.
+     * @return The simulated task; its start and end times are filled in by
+     *         {@link #run()}.
+     */
+    public Task submit(Priority priority, long delayMs, long arrivalNanos) {
+        if (arrivalNanos < lastArrival) {
+            throw new IllegalArgumentException("Arrivals must be submitted in time order");
+        }
+        // Task.compareTo breaks priority ties on submission time, so equal
+        // arrival times are nudged by a nanosecond to keep FIFO order
+        long submissionTime = arrivals.isEmpty() ? arrivalNanos : Math.max(arrivalNanos, lastSubmission + 1);
+        lastArrival = arrivalNanos;
+        lastSubmission = submissionTime;
+        SimTask task = new SimTask(priority, delayMs, submissionTime, nextId++);
+        arrivals.add(task);
+        return task;
+    }
+
+    /**
+     * Runs the simulation until every submitted task has completed.
+     */
+    public Result run() {
+        long wallStart = System.nanoTime();
+
+        PriorityQueue<Task> ready = new PriorityQueue<>();
+        PriorityQueue<ScheduledTask> delayed = new PriorityQueue<>();
+        long[] busyUntil = new long[workerCount];
+        int busy = 0;
+
+        LatencyHistogram[] waits = new LatencyHistogram[Priority.values().length];
+        for (int i = 0; i < waits.length; i++) {
+            waits[i] = new LatencyHistogram();
+        }
+
+        // Every wait as well, for exact quantiles: waits of an overloaded run
+        // go far past the histogram's top bucket
+        int[] perPriority = new int[waits.length];
+        for (SimTask task : arrivals) {
+            perPriority[task.getPriority().ordinal()]++;
+        }
+        long[][] exactWaits = new long[waits.length][];
+        for (int i = 0; i < waits.length; i++) {
+            exactWaits[i] = new long[perPriority[i]];
+        }
+        int[] recorded = new int[waits.length];
+
+        int nextArrival = 0;
+        long events = 0;
+        long firstArrival = arrivals.isEmpty() ? 0 : arrivals.get(0).getSubmissionTime();
+        now = firstArrival;
+
+        while (true) {
+            // Advance the clock to the earliest pending event
+            long next = Long.MAX_VALUE;
+            if (nextArrival < arrivals.size()) {
+                next = arrivals.get(nextArrival).getSubmissionTime();
+            }
+            if (!delayed.isEmpty()) {
+                next = Math.min(next, TimeUnit.MILLISECONDS.toNanos(delayed.peek().getTriggerTime()));
+            }
+            if (busy > 0) {
+                next = Math.min(next, busyUntil[0]);
+            }
+            if (next == Long.MAX_VALUE) {
+                break;
+            }
+            now = Math.max(now, next);
+
+            // Completions free their workers first
+            while (busy > 0 && busyUntil[0] <= now) {
+                busy = popMin(busyUntil, busy);
+                events++;
+            }
+
+            // Delayed tasks whose trigger time has passed become ready
+            while (!delayed.isEmpty() && delayed.peek().getDelay(TimeUnit.MILLISECONDS) <= 0) {
+                ready.offer(delayed.poll().getTask());
+                events++;
+            }
+
+            // New arrivals
+            while (nextArrival < arrivals.size() && arrivals.get(nextArrival).getSubmissionTime() <= now) {
+                SimTask task = arrivals.get(nextArrival++);
+                if (task.getExecutionTime() > 0) {
+                    delayed.offer(new ScheduledTask(task, task.getExecutionTime(), clockMillis));
+                } else {
+                    ready.offer(task);
+                }
+                events++;
+            }
+
+            // Idle workers take the highest-priority ready tasks
+            while (busy < workerCount && !ready.isEmpty()) {
+                Task task = ready.poll();
+                long service = serviceTimes.serviceTimeNanos(task.getPriority());
+                task.setExecutionStartTime(now);
+                task.setExecutionEndTime(now + service);
+                long readyTime = task.getSubmissionTime() + TimeUnit.MILLISECONDS.toNanos(task.getExecutionTime());
+                int p = task.getPriority().ordinal();
+                waits[p].record(now - readyTime);
+                exactWaits[p][recorded[p]++] = now - readyTime;
+                busy = push(busyUntil, busy, now + service);
+                events++;
+            }
+        }
+
+        LatencyHistogram.Snapshot[] waitSnapshots = new LatencyHistogram.Snapshot[waits.length];
+        for (int i = 0; i < waits.length; i++) {
+            waitSnapshots[i] = waits[i].snapshot();
+            Arrays.sort(exactWaits[i]);
+        }
+        return new Result(arrivals.size(), now - firstArrival, events, System.nanoTime() - wallStart, waitSnapshots,
+                exactWaits);
+    }
+
+    /**
+     * Adds a completion time to the min-heap of busy workers.
+     */
+    private static int push(long[] heap, int size, long value) {
+        int i = size;
+        heap[i] = value;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) {
+                break;
+            }
+            long tmp = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = tmp;
+            i = parent;
+        }
+        return size + 1;
+    }
+
+    /**
+     * Removes the earliest completion time from the min-heap.
+     */
+    private static int popMin(long[] heap, int size) {
+        int last = size - 1;
+        heap[0] = heap[last];
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= last) {
+                break;
+            }
+            int child = left + 1 < last && heap[left + 1] < heap[left] ? left + 1 : left;
+            if (heap[i] <= heap[child]) {
+                break;
+            }
+            long tmp = heap[child];
+            heap[child] = heap[i];
+            heap[i] = tmp;
+            i = child;
+        }
+        return last;
+    }
+
+    /**
+     * Simulated task: virtual submission time and a cheap sequential id
+     * instead of a random UUID.
+     */
+    private static final class SimTask extends Task {
+        private final long id;
+
+        SimTask(Priority priority, long delayMs, long submissionTime, long id) {
+            super(priority, delayMs, submissionTime);
+            this.id = id;
+        }
+
+        @Override
+        public UUID getTaskId() {
+            return new UUID(0, id);
+        }
+    }
+
+    /**
+     * Outcome of a simulation run. Times are in virtual nanoseconds unless
+     * noted otherwise.
+     */
+    public static class Result {
+        private final long tasks;
+        private final long makespanNanos;
+        private final long events;
+        private final long wallNanos;
+        private final LatencyHistogram.Snapshot[] waits;
+
+        // Every wait per priority ordinal, sorted
+        private final long[][] sortedWaits;
+
+        Result(long tasks, long makespanNanos, long events, long wallNanos, LatencyHistogram.Snapshot[] waits,
+                long[][] sortedWaits) {
+            this.tasks = tasks;
+            this.makespanNanos = makespanNanos;
+            this.events = events;
+            this.wallNanos = wallNanos;
+            this.waits = waits;
+            this.sortedWaits = sortedWaits;
+        }
+
+        public long getTasks() {
+            return tasks;
+        }
+
+        /**
+         * @return Virtual time from the first arrival to the last completion.
+         */
+        public long getMakespanNanos() {
+            return makespanNanos;
+        }
+
+        public double getThroughputTasksPerSecond() {
+            return makespanNanos == 0 ? 0 : tasks * 1e9 / makespanNanos;
+        }
+
+        /**
+         * @return Ready-to-start wait of the given priority.
+         */
+        public LatencyHistogram.Snapshot getWait(Priority priority) {
+            return waits[priority.ordinal()];
+        }
+
+        /**
+         * Exact quantile of the ready-to-start wait, unlike the histogram's
+         * bucket estimate, which cannot go past its top bucket.
+         *
+         * @param quantile Between 0 and 1, e.g. 0.99.
+         * @return The wait in nanoseconds, or 0 if no task of the priority ran.
+         */
+        public long getWaitQuantileNanos(Priority priority, double quantile) {
+            long[] sorted = sortedWaits[priority.ordinal()];
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+        }
+
+        public long getEvents() {
+            return events;
+        }
+
+        /**
+         * @return Real time the simulation took.
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        public double getEventsPerSecond() {
+            return wallNanos == 0 ? 0 : events * 1e9 / wallNanos;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.scheduler.service;
+
+import com.scheduler.task.Task;
+
+/**
+ * Point-in-time view of what a worker thread is doing.
+ */
+public class WorkerSnapshot {
+
+    private final String workerName;
+
+    // Name of the worker pool the worker belongs to
+    private final String poolName;
+
+    // Task being executed, or null if the worker is idle
+    private final Task currentTask;
+
+    // How long the current task has been running
+    private final long runningForMs;
+
+    // True if the worker was abandoned by the watchdog and will exit once its
+    // stuck task returns
+    private final boolean retired;
+
+    public WorkerSnapshot(String workerName, String poolName, Task currentTask, long runningForMs, boolean retired) {
+        this.workerName = workerName;
+        this.poolName = poolName;
+        this.currentTask = currentTask;
+        this.runningForMs = runningForMs;
+        this.retired = retired;
+    }
+
+    public String getWorkerName() {
+        return workerName;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public Task getCurrentTask() {
+        return currentTask;
+    }
+
+    public long getRunningForMs() {
+        return runningForMs;
+    }
+
+    public boolean isRetired() {
+        return retired;
+    }
+
+    public boolean isIdle() {
+        return currentTask == null;
+    }
+
+    @Override
+    public String toString() {
+        if (currentTask == null) {
+            return workerName + ": idle";
+        }
+        return workerName + ": " + currentTask + ", running for " + runningForMs + " ms"
+                + (retired ? " (retired)" : "");
+    }
+}
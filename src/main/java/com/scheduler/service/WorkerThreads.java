@@ -0,0 +1,61 @@
+package com.scheduler.service;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates worker threads, using virtual threads where the JDK has them
+ * (Java 21+). They are looked up reflectively so the scheduler still builds
+ * and runs on older JDKs, where platform threads are used instead.
+ */
+final class WorkerThreads {
+
+    // Thread.ofVirtual(), Thread.Builder.name(String) and
+    // Thread.Builder.unstarted(Runnable); null when unavailable
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class);
+            unstarted = builder.getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * @return True if this JDK supports virtual threads.
+     */
+    static boolean isVirtualAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an unstarted thread.
+     *
+     * @param virtual Use a virtual thread if the JDK supports them.
+     */
+    static Thread newThread(Runnable runnable, String name, boolean virtual) {
+        if (virtual && OF_VIRTUAL != null) {
+            try {
+                Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (Thread) UNSTARTED.invoke(builder, runnable);
+            } catch (ReflectiveOperationException e) {
+                // Fall back to a platform thread
+            }
+        }
+        return new Thread(runnable, name);
+    }
+}
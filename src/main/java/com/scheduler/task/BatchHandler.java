@@ -0,0 +1,17 @@
+package com.scheduler.task;
+
+import java.util.List;
+
+/**
+ * Processes a group of batch task payloads in a single invocation.
+ *
+ * @param <T> Payload type carried by the batched tasks.
+ */
+@FunctionalInterface
+public interface BatchHandler<T> {
+
+    /**
+     * @param payloads Payloads of the collected tasks, in submission order.
+     */
+    void handle(List<T> payloads);
+}
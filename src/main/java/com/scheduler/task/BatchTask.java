@@ -0,0 +1,71 @@
+package com.scheduler.task;
+
+/**
+ * A small task that is not run on its own but collected with other tasks
+ * sharing the same batch key and handed to a {@link BatchHandler} in one go.
+ *
+ * The task's action is used as a per-item completion callback: it runs after
+ * the batch containing this task has been handled, whether the handler
+ * succeeded or not. The callback can tell the two apart with
+ * {@link #isFailed()}.
+ *
+ * @param <T> Payload type.
+ */
+public class BatchTask<T> extends Task {
+
+    // Tasks with equal keys are processed together
+    private final String batchKey;
+
+    // Item handed to the batch handler
+    private final T payload;
+
+    // Exception of the batch handler or of this task's callback, if any
+    private volatile Throwable failure;
+
+    /**
+     * @param batchKey   Key of a batch handler registered with the scheduler.
+     * @param payload    Item to process.
+     * @param priority   The task priority.
+     * @param onComplete Callback run once the item has been handled, even if
+     *                   the handler failed (may be null).
+     */
+    public BatchTask(String batchKey, T payload, Priority priority, Runnable onComplete) {
+        super(onComplete != null ? onComplete : () -> {
+        }, priority, 0, batchKey);
+        this.batchKey = batchKey;
+        this.payload = payload;
+    }
+
+    public String getBatchKey() {
+        return batchKey;
+    }
+
+    public T getPayload() {
+        return payload;
+    }
+
+    /**
+     * Set by the scheduler when the batch handler or this task's callback
+     * throws.
+     * 
+     * @param failure The exception.
+     */
+    public void setFailure(Throwable failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * @return The exception that failed this item, or null if it succeeded.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return True if the batch handler threw for the batch containing this
+     *         task, or this task's callback threw.
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+}
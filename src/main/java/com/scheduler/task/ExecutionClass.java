@@ -0,0 +1,14 @@
+package com.scheduler.task;
+
+/**
+ * What kind of work a task does, used to route it to a worker pool.
+ * Giving each class its own pool (a bulkhead) keeps tasks that block on I/O
+ * or sleep from occupying the workers that CPU-bound tasks need.
+ */
+public enum ExecutionClass {
+    // Computes without blocking; best served by about one worker per core
+    CPU,
+
+    // Spends most of its time waiting (I/O, sleeps, locks)
+    BLOCKING
+}
@@ -0,0 +1,20 @@
+package com.scheduler.task;
+
+/**
+ * Hooks a scheduler provides to {@link SplittableTask}s so they can push
+ * children to the workers and help run queued work while joining.
+ */
+public interface ForkContext {
+
+    /**
+     * Makes a child task available to idle workers.
+     */
+    void fork(Task child);
+
+    /**
+     * Runs one ready task on the calling thread, if there is one.
+     *
+     * @return true if a task was run.
+     */
+    boolean helpOnce();
+}
@@ -0,0 +1,250 @@
+package com.scheduler.task;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A reusable task for high-rate submission.
+ *
+ * Instead of a capturing lambda and a UUID per submission, a pooled task
+ * carries a reusable {@link Handler} plus a primitive and an object argument
+ * slot. Tasks come from a per-thread pool and the scheduler returns them to
+ * it automatically once they have run, so steady-state submission allocates
+ * nothing.
+ *
+ * Each instance has a generation counter that is odd while the task is in use
+ * and even once released. Reading the arguments of a released task, or
+ * releasing it twice, throws IllegalStateException; code that keeps a
+ * reference past completion can remember {@link #getGeneration()} and check
+ * {@link #isValid(long)}. The scheduler records the generation a task was
+ * submitted in and refuses to run it in any other, so a stale reference
+ * submitted again cannot run a later acquisition's handler.
+ */
+public final class PooledTask extends Task {
+
+    /**
+     * The work done by a pooled task. Typically a shared, non-capturing
+     * instance that reads its input from the task's argument slots.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void handle(PooledTask task);
+    }
+
+    private static final ThreadLocal<Pool> POOLS = ThreadLocal.withInitial(Pool::new);
+
+    // Pool this instance belongs to
+    private final Pool owner;
+
+    // Reused as the task's action so fetching it does not allocate
+    private final Runnable execution;
+
+    // Odd while acquired, even while pooled
+    private final AtomicLong generation;
+
+    // Generation the task was last submitted in
+    private final AtomicLong submittedGeneration;
+
+    // Per-use state, cleared on release
+    private Handler handler;
+    private long longArg;
+    private Object arg;
+    private long sequence;
+
+    // Link in the owner pool's stack of tasks returned by other threads
+    private PooledTask next;
+
+    private PooledTask(Pool owner) {
+        super(Priority.LOW, 0, 0);
+        this.owner = owner;
+        this.execution = this::execute;
+        this.generation = new AtomicLong(0);
+        this.submittedGeneration = new AtomicLong(0);
+    }
+
+    /**
+     * Takes a task from the calling thread's pool.
+     *
+     * @param handler  The work to run.
+     * @param priority The task priority.
+     * @param longArg  Primitive argument for the handler.
+     * @param arg      Object argument for the handler (may be null).
+     * @return A task ready to be submitted.
+     */
+    public static PooledTask acquire(Handler handler, Priority priority, long longArg, Object arg) {
+        return acquire(handler, priority, 0, longArg, arg);
+    }
+
+    /**
+     * Takes a task from the calling thread's pool, with a delay.
+     *
+     * @param handler       The work to run.
+     * @param priority      The task priority.
+     * @param executionTime Delay in ms before the task becomes ready.
+     * @param longArg       Primitive argument for the handler.
+     * @param arg           Object argument for the handler (may be null).
+     * @return A task ready to be submitted.
+     */
+    public static PooledTask acquire(Handler handler, Priority priority, long executionTime, long longArg,
+            Object arg) {
+        PooledTask task = POOLS.get().take();
+        task.reinitialize(priority, executionTime, System.nanoTime());
+        task.handler = handler;
+        task.longArg = longArg;
+        task.arg = arg;
+        task.sequence = task.owner.nextSequence++;
+        // Publishes the fields above to whichever thread observes the new generation
+        task.generation.incrementAndGet();
+        return task;
+    }
+
+    /**
+     * Returns the task to its pool. Called by the scheduler after the task
+     * has run; only call it directly for a task that was never submitted.
+     *
+     * @throws IllegalStateException if the task was already released.
+     */
+    public void release() {
+        long current = generation.get();
+        if ((current & 1) == 0) {
+            throw new IllegalStateException("Pooled task released twice");
+        }
+        handler = null;
+        arg = null;
+        if (!generation.compareAndSet(current, current + 1)) {
+            throw new IllegalStateException("Pooled task released concurrently");
+        }
+        owner.giveBack(this);
+    }
+
+    /**
+     * Records the current acquisition as submitted. Called by the scheduler
+     * on submit.
+     *
+     * @throws IllegalStateException if the task was released.
+     */
+    public void markSubmitted() {
+        long current = generation.get();
+        if ((current & 1) == 0) {
+            throw new IllegalStateException("Pooled task submitted after release");
+        }
+        submittedGeneration.set(current);
+    }
+
+    /**
+     * @return true if the task is still the acquisition that was submitted;
+     *         checked by the scheduler before running it.
+     */
+    public boolean isSubmittedGeneration() {
+        return generation.get() == submittedGeneration.get();
+    }
+
+    /**
+     * @return The current generation; it changes on every acquire and release.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return true if the task is still the same acquisition as the one that
+     *         had the given generation.
+     */
+    public boolean isValid(long expectedGeneration) {
+        return (expectedGeneration & 1) == 1 && generation.get() == expectedGeneration;
+    }
+
+    public long getLongArg() {
+        checkInUse();
+        return longArg;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getArg() {
+        checkInUse();
+        return (T) arg;
+    }
+
+    @Override
+    public UUID getTaskId() {
+        // Built on demand so pooled submissions never allocate an id
+        return new UUID(owner.poolId, sequence);
+    }
+
+    @Override
+    public Runnable getAction() {
+        return execution;
+    }
+
+    private void execute() {
+        checkInUse();
+        handler.handle(this);
+    }
+
+    private void checkInUse() {
+        if ((generation.get() & 1) == 0) {
+            throw new IllegalStateException("Pooled task used after release");
+        }
+    }
+
+    /**
+     * Per-thread free list. The owning thread takes from a plain deque; other
+     * threads (usually workers) hand tasks back through a lock-free stack
+     * linked through the tasks themselves, which the owner drains when its
+     * deque runs dry.
+     */
+    private static final class Pool {
+        // Released tasks beyond this are left to the GC
+        private static final int MAX_POOLED = 1024;
+
+        private static final AtomicLong POOL_IDS = new AtomicLong(0);
+
+        private final long poolId = POOL_IDS.incrementAndGet();
+        private final Thread ownerThread = Thread.currentThread();
+        private final ArrayDeque<PooledTask> free = new ArrayDeque<>();
+        private final AtomicReference<PooledTask> returned = new AtomicReference<>();
+        private long nextSequence;
+
+        PooledTask take() {
+            PooledTask task = free.pollLast();
+            if (task != null) {
+                return task;
+            }
+            PooledTask head = returned.getAndSet(null);
+            if (head == null) {
+                return new PooledTask(this);
+            }
+            // Keep the first, move the rest to the local deque
+            task = head;
+            head = head.next;
+            task.next = null;
+            while (head != null) {
+                PooledTask following = head.next;
+                head.next = null;
+                if (free.size() < MAX_POOLED) {
+                    free.addLast(head);
+                }
+                head = following;
+            }
+            return task;
+        }
+
+        void giveBack(PooledTask task) {
+            if (Thread.currentThread() == ownerThread) {
+                if (free.size() < MAX_POOLED) {
+                    free.addLast(task);
+                }
+                return;
+            }
+            while (true) {
+                PooledTask head = returned.get();
+                task.next = head;
+                if (returned.compareAndSet(head, task)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.scheduler.task;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A task that can split itself into parallel children while it runs.
+ *
+ * Children inherit the parent's priority and are pushed to the scheduler so
+ * idle workers can pick them up. A parent that needs its children's results
+ * calls {@link #join()}, which runs pending children (or other queued work)
+ * on the current worker instead of blocking it. Alternatively the parent can
+ * return right after forking and let its continuation run once the last child
+ * has finished.
+ */
+public class SplittableTask extends Task {
+
+    /**
+     * The work done by a splittable task. It receives the task itself so it
+     * can fork children and join them.
+     */
+    @FunctionalInterface
+    public interface Body {
+        void compute(SplittableTask task);
+    }
+
+    private final Body body;
+
+    // Run once the body and all children have finished (may be null)
+    private final Runnable continuation;
+
+    // Parent to notify on completion (null for a root task)
+    private final SplittableTask parent;
+
+    // Reused as the task's action so fetching it does not allocate
+    private final Runnable execution;
+
+    // Set by whichever thread runs the body first; a child can be run by a
+    // joining parent and still be sitting in the scheduler's queue
+    private final AtomicBoolean started;
+
+    // The body itself plus every child that has not completed yet
+    private final AtomicInteger pending;
+
+    // Children not yet picked up by anyone, newest last
+    private final ConcurrentLinkedDeque<SplittableTask> forked;
+
+    private volatile ForkContext context;
+
+    /**
+     * @param body     The work to run.
+     * @param priority The task priority, inherited by all children.
+     */
+    public SplittableTask(Body body, Priority priority) {
+        this(body, priority, null);
+    }
+
+    /**
+     * @param body         The work to run.
+     * @param priority     The task priority, inherited by all children.
+     * @param continuation Run on the worker that finishes last, once the body
+     *                     and all children have completed.
+     */
+    public SplittableTask(Body body, Priority priority, Runnable continuation) {
+        this(body, priority, continuation, null);
+    }
+
+    private SplittableTask(Body body, Priority priority, Runnable continuation, SplittableTask parent) {
+        super(null, priority, 0);
+        this.body = body;
+        this.continuation = continuation;
+        this.parent = parent;
+        this.execution = this::execute;
+        this.started = new AtomicBoolean(false);
+        this.pending = new AtomicInteger(1);
+        this.forked = new ConcurrentLinkedDeque<>();
+    }
+
+    /**
+     * Attaches the task to a scheduler. Called by the scheduler on submit.
+     */
+    public void bind(ForkContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public Runnable getAction() {
+        return execution;
+    }
+
+    /**
+     * @return true once some thread has started running this task's body.
+     */
+    public boolean isStarted() {
+        return started.get();
+    }
+
+    /**
+     * @return true if this task was forked by another splittable task.
+     */
+    public boolean isChild() {
+        return parent != null;
+    }
+
+    /**
+     * @return true once the body and all children have completed.
+     */
+    public boolean isDone() {
+        return pending.get() == 0;
+    }
+
+    /**
+     * Spawns a child with the same priority. Must be called from this task's
+     * body.
+     *
+     * @param childBody The child's work; it may fork further children.
+     * @return The child task.
+     */
+    public SplittableTask fork(Body childBody) {
+        return fork(childBody, null);
+    }
+
+    /**
+     * Spawns a child with the same priority, execution class and its own
+     * continuation.
+     */
+    public SplittableTask fork(Body childBody, Runnable childContinuation) {
+        ForkContext ctx = context;
+        if (ctx == null) {
+            throw new IllegalStateException("Task has not been submitted to a scheduler");
+        }
+        SplittableTask child = new SplittableTask(childBody, getPriority(), childContinuation, this);
+        child.setExecutionClass(getExecutionClass());
+        child.bind(ctx);
+        pending.incrementAndGet();
+        forked.addLast(child);
+        ctx.fork(child);
+        return child;
+    }
+
+    /**
+     * Waits for all children forked so far, helping to run them (newest
+     * first) and then any other queued work instead of blocking the worker.
+     * Must be called from this task's body.
+     */
+    public void join() {
+        ForkContext ctx = context;
+        while (pending.get() > 1) {
+            SplittableTask child = forked.pollLast();
+            if (child != null) {
+                child.execute();
+            } else if (ctx == null || !ctx.helpOnce()) {
+                // Remaining children are running on other workers
+                Thread.yield();
+            }
+        }
+    }
+
+    private void execute() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        // Stamped here as well as by the worker, since children can also run
+        // inline inside a parent's join()
+        setExecutionStartTime(System.nanoTime());
+        try {
+            body.compute(this);
+        } finally {
+            setExecutionEndTime(System.nanoTime());
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (pending.decrementAndGet() != 0) {
+            return;
+        }
+        forked.clear();
+        try {
+            if (continuation != null) {
+                continuation.run();
+            }
+        } finally {
+            if (parent != null) {
+                parent.complete();
+            }
+        }
+    }
+}
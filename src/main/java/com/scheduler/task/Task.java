@@ -15,13 +15,17 @@ public class Task implements Comparable<Task> {
     private final Runnable action;
 
     // Priority level (HIGH < MEDIUM < LOW in ordinal for sorting)
-    private final Priority priority;
+    // Not final so pooled subclasses can be reinitialized for reuse
+    private Priority priority;
 
     // Execution time (could be delay or absolute time depending on usage)
-    private final long executionTime;
+    private long executionTime;
 
     // Timestamp when the task was created
-    private final long submissionTime;
+    private long submissionTime;
+
+    // Optional type tag used for per-type rate limiting (may be null)
+    private final String type;
 
     /**
      * Creates a new Task.
@@ -33,15 +37,78 @@ public class Task implements Comparable<Task> {
     // Timestamp when the task actually started execution by a worker
     private long executionStartTime;
 
+    // Timestamp when the task finished execution
+    private long executionEndTime;
+
+    // Timestamp when the task last entered a ready queue
+    private long readyTime;
+
+    // Maximum run time in ms before the watchdog interrupts it (0 = use the
+    // scheduler's default for the priority)
+    private volatile long executionTimeoutMs;
+
+    // Selects the worker pool that runs the task
+    private volatile ExecutionClass executionClass = ExecutionClass.CPU;
+
+    // Queue wait predicted by admission control, or -1 if not estimated
+    private long estimatedWaitNanos = -1;
+
     public Task(Runnable action, Priority priority, long executionTime) {
+        this(action, priority, executionTime, null);
+    }
+
+    /**
+     * Creates a new Task tagged with a type.
+     * 
+     * @param action        The runnable to be executed.
+     * @param priority      The task priority.
+     * @param executionTime The scheduled execution time or delay.
+     * @param type          Type tag used to look up a rate limit, or null.
+     */
+    public Task(Runnable action, Priority priority, long executionTime, String type) {
         this.taskId = UUID.randomUUID();
         this.action = action;
         this.priority = priority;
         this.executionTime = executionTime;
+        this.type = type;
         // Use nanoTime for better precision in sorting
         this.submissionTime = System.nanoTime();
     }
 
+    /**
+     * Creates a task without an action or UUID, for subclasses that supply
+     * their own (see {@link #getAction()} and {@link #getTaskId()}) and may
+     * be reinitialized for reuse.
+     * 
+     * @param priority       The task priority.
+     * @param executionTime  The scheduled execution time or delay.
+     * @param submissionTime Submission timestamp used for FIFO ordering.
+     */
+    protected Task(Priority priority, long executionTime, long submissionTime) {
+        this.taskId = null;
+        this.action = null;
+        this.type = null;
+        this.priority = priority;
+        this.executionTime = executionTime;
+        this.submissionTime = submissionTime;
+    }
+
+    /**
+     * Resets the scheduling state so the instance can be submitted again.
+     * Only for subclasses created with the protected constructor.
+     */
+    protected void reinitialize(Priority priority, long executionTime, long submissionTime) {
+        this.priority = priority;
+        this.executionTime = executionTime;
+        this.submissionTime = submissionTime;
+        this.executionStartTime = 0;
+        this.executionEndTime = 0;
+        this.readyTime = 0;
+        this.executionTimeoutMs = 0;
+        this.executionClass = ExecutionClass.CPU;
+        this.estimatedWaitNanos = -1;
+    }
+
     public void setExecutionStartTime(long executionStartTime) {
         this.executionStartTime = executionStartTime;
     }
@@ -50,6 +117,71 @@ public class Task implements Comparable<Task> {
         return executionStartTime;
     }
 
+    public void setExecutionEndTime(long executionEndTime) {
+        this.executionEndTime = executionEndTime;
+    }
+
+    public long getExecutionEndTime() {
+        return executionEndTime;
+    }
+
+    /**
+     * Set by the scheduler each time the task is put in a ready queue.
+     * 
+     * @param readyTime Enqueue timestamp (System.nanoTime()).
+     */
+    public void setReadyTime(long readyTime) {
+        this.readyTime = readyTime;
+    }
+
+    public long getReadyTime() {
+        return readyTime;
+    }
+
+    /**
+     * Sets a per-task execution timeout, overriding the scheduler's
+     * per-priority default. Must be set before the task is submitted.
+     * 
+     * @param executionTimeoutMs Timeout in ms, or 0 to use the default.
+     */
+    public void setExecutionTimeoutMs(long executionTimeoutMs) {
+        this.executionTimeoutMs = executionTimeoutMs;
+    }
+
+    public long getExecutionTimeoutMs() {
+        return executionTimeoutMs;
+    }
+
+    /**
+     * Sets the kind of work the task does, which selects the worker pool
+     * that runs it. Must be set before the task is submitted.
+     * 
+     * @param executionClass The execution class (CPU by default).
+     */
+    public void setExecutionClass(ExecutionClass executionClass) {
+        this.executionClass = executionClass;
+    }
+
+    public ExecutionClass getExecutionClass() {
+        return executionClass;
+    }
+
+    /**
+     * Set by the scheduler when admission control admits the task.
+     * 
+     * @param estimatedWaitNanos Predicted queue wait.
+     */
+    public void setEstimatedWaitNanos(long estimatedWaitNanos) {
+        this.estimatedWaitNanos = estimatedWaitNanos;
+    }
+
+    /**
+     * @return Queue wait predicted at admission, or -1 if none was made.
+     */
+    public long getEstimatedWaitNanos() {
+        return estimatedWaitNanos;
+    }
+
     public UUID getTaskId() {
         return taskId;
     }
@@ -70,6 +202,10 @@ public class Task implements Comparable<Task> {
         return submissionTime;
     }
 
+    public String getType() {
+        return type;
+    }
+
     @Override
     public int compareTo(Task other) {
         // 1. Compare Priority
@@ -87,9 +223,10 @@ public class Task implements Comparable<Task> {
     @Override
     public String toString() {
         return "Task{" +
-                "taskId=" + taskId +
+                "taskId=" + getTaskId() +
                 ", priority=" + priority +
                 ", executionTime=" + executionTime +
+                (type != null ? ", type=" + type : "") +
                 '}';
     }
 }
@@ -0,0 +1,147 @@
+package com.scheduler.trace;
+
+import com.scheduler.task.Priority;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Offline analyzer that turns a Flight Recorder file containing the
+ * scheduler's events into a per-priority latency breakdown: delay dispatch
+ * lag, ready-queue wait and execution time.
+ *
+ * Usage:
+ * java com.scheduler.trace.JfrLatencyAnalyzer <recording.jfr>
+ */
+public class JfrLatencyAnalyzer {
+
+    private static final String PREFIX = "com.scheduler.";
+
+    // One sample series per priority and stage
+    private final Map<Priority, Samples> delayLag = newSeries();
+    private final Map<Priority, Samples> queueWait = newSeries();
+    private final Map<Priority, Samples> execution = newSeries();
+
+    // Per priority: submitted, rejected, failed
+    private final Map<Priority, long[]> counts = new EnumMap<>(Priority.class);
+
+    public JfrLatencyAnalyzer() {
+        for (Priority p : Priority.values()) {
+            counts.put(p, new long[3]);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java com.scheduler.trace.JfrLatencyAnalyzer <recording.jfr>");
+            System.exit(1);
+        }
+        JfrLatencyAnalyzer analyzer = new JfrLatencyAnalyzer();
+        analyzer.read(Paths.get(args[0]));
+        analyzer.print();
+    }
+
+    private static Map<Priority, Samples> newSeries() {
+        Map<Priority, Samples> series = new EnumMap<>(Priority.class);
+        for (Priority p : Priority.values()) {
+            series.put(p, new Samples());
+        }
+        return series;
+    }
+
+    public void read(Path recording) throws IOException {
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(PREFIX)) {
+                    continue;
+                }
+                Priority priority = Priority.valueOf(event.getString("priority"));
+                switch (name.substring(PREFIX.length())) {
+                    case "TaskSubmitted":
+                        counts.get(priority)[0]++;
+                        break;
+                    case "TaskRejected":
+                        counts.get(priority)[1]++;
+                        break;
+                    case "TaskDelayFired":
+                        delayLag.get(priority).add(event.getLong("lag"));
+                        break;
+                    case "TaskDequeued":
+                        queueWait.get(priority).add(event.getLong("queueWait"));
+                        break;
+                    case "TaskFinished":
+                        execution.get(priority).add(event.getLong("executionTime"));
+                        if (event.getBoolean("failed")) {
+                            counts.get(priority)[2]++;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    public void print() {
+        System.out.println("Priority,Stage,Count,MeanMs,P50Ms,P99Ms,MaxMs");
+        for (Priority p : Priority.values()) {
+            printRow(p, "DelayLag", delayLag.get(p));
+            printRow(p, "QueueWait", queueWait.get(p));
+            printRow(p, "Execution", execution.get(p));
+        }
+        System.out.println();
+        System.out.println("Priority,Submitted,Rejected,Failed");
+        for (Priority p : Priority.values()) {
+            long[] c = counts.get(p);
+            System.out.println(p + "," + c[0] + "," + c[1] + "," + c[2]);
+        }
+    }
+
+    private static void printRow(Priority priority, String stage, Samples samples) {
+        long[] sorted = samples.sorted();
+        if (sorted.length == 0) {
+            System.out.println(priority + "," + stage + ",0,,,,");
+            return;
+        }
+        double sum = 0;
+        for (long v : sorted) {
+            sum += v;
+        }
+        System.out.println(String.format("%s,%s,%d,%.3f,%.3f,%.3f,%.3f",
+                priority, stage, sorted.length,
+                sum / sorted.length / 1_000_000.0,
+                sorted[sorted.length / 2] / 1_000_000.0,
+                sorted[(int) Math.min(sorted.length - 1, (long) (sorted.length * 0.99))] / 1_000_000.0,
+                sorted[sorted.length - 1] / 1_000_000.0));
+    }
+
+    /**
+     * Growable array of nanosecond samples.
+     */
+    private static class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
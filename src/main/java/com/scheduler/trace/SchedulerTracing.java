@@ -0,0 +1,96 @@
+package com.scheduler.trace;
+
+import com.scheduler.task.Task;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emits JDK Flight Recorder events for the scheduler's task lifecycle:
+ * submit, delay-fire, dequeue, start, finish and reject.
+ *
+ * Every method first asks the event whether it is enabled. When no recording
+ * is running that check is a constant the JIT folds away, and the unused event
+ * object never escapes, so tracing costs close to nothing until a recording
+ * with these events is started, e.g.
+ * {@code java -XX:StartFlightRecording:filename=scheduler.jfr ...}.
+ */
+public final class SchedulerTracing {
+
+    private SchedulerTracing() {
+    }
+
+    public static void submitted(Task task) {
+        TaskSubmittedEvent event = new TaskSubmittedEvent();
+        if (event.isEnabled()) {
+            fill(event, task);
+            event.delay = task.getExecutionTime();
+            event.type = task.getType();
+            event.commit();
+        }
+    }
+
+    /**
+     * @param lagMs How late the delayed task was moved to the ready queue.
+     */
+    public static void delayFired(Task task, long lagMs) {
+        TaskDelayFiredEvent event = new TaskDelayFiredEvent();
+        if (event.isEnabled()) {
+            fill(event, task);
+            event.lag = TimeUnit.MILLISECONDS.toNanos(Math.max(0, lagMs));
+            event.commit();
+        }
+    }
+
+    /**
+     * Emitted when a dequeued task is about to start, not for dequeues that
+     * end in a rate-limit deferral. The wait is measured from when the task
+     * last entered the ready queue, so it does not overlap the delay lag.
+     *
+     * @param now Dequeue timestamp (System.nanoTime()).
+     */
+    public static void dequeued(Task task, long now) {
+        TaskDequeuedEvent event = new TaskDequeuedEvent();
+        if (event.isEnabled()) {
+            fill(event, task);
+            event.queueWait = Math.max(0, now - task.getReadyTime());
+            event.commit();
+        }
+    }
+
+    public static void started(Task task) {
+        TaskStartedEvent event = new TaskStartedEvent();
+        if (event.isEnabled()) {
+            fill(event, task);
+            event.commit();
+        }
+    }
+
+    /**
+     * @param executionNanos How long the task ran.
+     * @param failed         Whether the task threw.
+     */
+    public static void finished(Task task, long executionNanos, boolean failed) {
+        TaskFinishedEvent event = new TaskFinishedEvent();
+        if (event.isEnabled()) {
+            fill(event, task);
+            event.executionTime = executionNanos;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    public static void rejected(Task task, String reason) {
+        TaskRejectedEvent event = new TaskRejectedEvent();
+        if (event.isEnabled()) {
+            fill(event, task);
+            event.reason = reason;
+            event.commit();
+        }
+    }
+
+    private static void fill(TaskEvent event, Task task) {
+        event.taskId = String.valueOf(task.getTaskId());
+        event.priority = task.getPriority().name();
+        event.worker = Thread.currentThread().getName();
+    }
+}
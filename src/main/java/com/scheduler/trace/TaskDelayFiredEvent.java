@@ -0,0 +1,20 @@
+package com.scheduler.trace;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A delayed task was moved to the ready queue.
+ */
+@Name("com.scheduler.TaskDelayFired")
+@Label("Task Delay Fired")
+@Description("A delayed task was moved to the ready queue.")
+class TaskDelayFiredEvent extends TaskEvent {
+
+    @Label("Dispatch Lag")
+    @Description("Time between the trigger time and the move to the ready queue")
+    @Timespan(Timespan.NANOSECONDS)
+    long lag;
+}
@@ -0,0 +1,20 @@
+package com.scheduler.trace;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A worker took a task from the ready queue and is about to run it.
+ */
+@Name("com.scheduler.TaskDequeued")
+@Label("Task Dequeued")
+@Description("A worker took a task from the ready queue and is about to run it.")
+class TaskDequeuedEvent extends TaskEvent {
+
+    @Label("Queue Wait")
+    @Description("Time from entering the ready queue to dequeue")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueWait;
+}
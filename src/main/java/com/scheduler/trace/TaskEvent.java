@@ -0,0 +1,25 @@
+package com.scheduler.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fields shared by all scheduler Flight Recorder events.
+ * Stack traces are off: the events fire on every task and a stack walk
+ * would cost far more than the event itself.
+ */
+@Category("Task Scheduler")
+@StackTrace(false)
+abstract class TaskEvent extends Event {
+
+    @Label("Task Id")
+    String taskId;
+
+    @Label("Priority")
+    String priority;
+
+    @Label("Worker")
+    String worker;
+}
@@ -0,0 +1,22 @@
+package com.scheduler.trace;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A task finished running.
+ */
+@Name("com.scheduler.TaskFinished")
+@Label("Task Finished")
+@Description("A task finished running.")
+class TaskFinishedEvent extends TaskEvent {
+
+    @Label("Execution Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executionTime;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,17 @@
+package com.scheduler.trace;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A task was refused by the scheduler.
+ */
+@Name("com.scheduler.TaskRejected")
+@Label("Task Rejected")
+@Description("A task was refused by the scheduler.")
+class TaskRejectedEvent extends TaskEvent {
+
+    @Label("Reason")
+    String reason;
+}
@@ -0,0 +1,14 @@
+package com.scheduler.trace;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A worker started running a task.
+ */
+@Name("com.scheduler.TaskStarted")
+@Label("Task Started")
+@Description("A worker started running a task.")
+class TaskStartedEvent extends TaskEvent {
+}
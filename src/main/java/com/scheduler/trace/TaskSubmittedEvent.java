@@ -0,0 +1,22 @@
+package com.scheduler.trace;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A task was accepted by the scheduler.
+ */
+@Name("com.scheduler.TaskSubmitted")
+@Label("Task Submitted")
+@Description("A task was accepted by the scheduler.")
+class TaskSubmittedEvent extends TaskEvent {
+
+    @Label("Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    long delay;
+
+    @Label("Type")
+    String type;
+}
@@ -1,5 +1,7 @@
 package com.scheduler.ui;
 
+import com.scheduler.metrics.LatencyHistogram;
+import com.scheduler.metrics.SchedulerStats;
 import com.scheduler.service.TaskScheduler;
 import com.scheduler.task.Priority;
 import com.scheduler.task.Task;
@@ -7,21 +9,43 @@ import com.scheduler.task.Task;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 
 /**
  * Swing-based GUI for visualizing the multi-threaded task scheduler in
  * real-time.
  * Allows users to configure and run simulations with live metrics display.
+ *
+ * All UI updates happen on the Event Dispatch Thread from a single Swing
+ * timer that reads lock-free metric snapshots, so the refresh cost does not
+ * grow with the number of tasks or workers.
  */
 public class SchedulerGUI extends JFrame {
+    // How often labels, charts and the log are refreshed
+    private static final int REFRESH_INTERVAL_MS = 250;
+
+    // Log lines kept in the text area; older lines are dropped
+    private static final int MAX_LOG_LINES = 500;
+
+    // Samples kept per chart (60 s at the refresh interval)
+    private static final int CHART_SAMPLES = 240;
+
     private SchedulerMetrics metrics;
-    private TaskScheduler scheduler;
+    private volatile TaskScheduler scheduler;
     private volatile boolean isRunning = false;
 
+    // Log messages from any thread, drained by the refresh timer
+    private final ConcurrentLinkedQueue<String> pendingLog = new ConcurrentLinkedQueue<>();
+
+    // Ring buffer of the lines currently shown (EDT only)
+    private final ArrayDeque<String> logLines = new ArrayDeque<>(MAX_LOG_LINES);
+
+    // Previous snapshot, used to turn cumulative counters into rates (EDT only)
+    private SchedulerStats.Snapshot lastSnapshot;
+
     // UI Components
     private JSpinner tasksSpinner;
     private JSpinner threadsSpinner;
@@ -37,6 +61,9 @@ public class SchedulerGUI extends JFrame {
     private JLabel lowPriorityLabel;
     private JProgressBar overallProgress;
     private JTextArea logArea;
+    private TimeSeriesChart throughputChart;
+    private TimeSeriesChart queueDepthChart;
+    private TimeSeriesChart waitChart;
 
     public SchedulerGUI() {
         setTitle("Multi-Threaded Task Scheduler - Visualizer");
@@ -62,8 +89,8 @@ public class SchedulerGUI extends JFrame {
 
         add(mainPanel);
 
-        // Start metrics update thread
-        startMetricsUpdateThread();
+        // Start periodic UI refresh on the EDT
+        startRefreshTimer();
 
         setVisible(true);
     }
@@ -80,14 +107,14 @@ public class SchedulerGUI extends JFrame {
         // Number of Tasks
         JPanel tasksBox = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 5));
         tasksBox.setBorder(BorderFactory.createTitledBorder("Total Tasks"));
-        tasksSpinner = new JSpinner(new SpinnerNumberModel(100, 10, 500, 10));
-        tasksSpinner.setPreferredSize(new Dimension(80, 30));
+        tasksSpinner = new JSpinner(new SpinnerNumberModel(100, 10, 10_000_000, 1000));
+        tasksSpinner.setPreferredSize(new Dimension(110, 30));
         tasksBox.add(tasksSpinner);
 
         // Number of Threads
         JPanel threadsBox = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 5));
         threadsBox.setBorder(BorderFactory.createTitledBorder("Worker Threads"));
-        threadsSpinner = new JSpinner(new SpinnerNumberModel(4, 1, 16, 1));
+        threadsSpinner = new JSpinner(new SpinnerNumberModel(4, 1, 256, 1));
         threadsSpinner.setPreferredSize(new Dimension(80, 30));
         threadsBox.add(threadsSpinner);
 
@@ -176,6 +203,24 @@ public class SchedulerGUI extends JFrame {
 
         mainPanel.add(leftPanel);
 
+        // Right: Live Charts
+        JPanel chartPanel = new JPanel(new GridLayout(3, 1, 5, 5));
+        chartPanel.setBorder(BorderFactory.createTitledBorder("Live Charts"));
+        Color high = new Color(204, 0, 0);
+        Color medium = new Color(230, 140, 0);
+        Color low = new Color(0, 102, 204);
+        throughputChart = new TimeSeriesChart("Throughput", "tasks/sec",
+                new String[] { "Completed" }, new Color[] { new Color(0, 153, 51) }, CHART_SAMPLES);
+        queueDepthChart = new TimeSeriesChart("Queue Depth", "tasks",
+                new String[] { "HIGH", "MEDIUM", "LOW" }, new Color[] { high, medium, low }, CHART_SAMPLES);
+        waitChart = new TimeSeriesChart("p99 Wait", "ms",
+                new String[] { "HIGH", "MEDIUM", "LOW" }, new Color[] { high, medium, low }, CHART_SAMPLES);
+        chartPanel.add(throughputChart);
+        chartPanel.add(queueDepthChart);
+        chartPanel.add(waitChart);
+
+        mainPanel.add(chartPanel);
+
         return mainPanel;
     }
 
@@ -228,7 +273,13 @@ public class SchedulerGUI extends JFrame {
         threadsSpinner.setEnabled(false);
 
         metrics.reset();
+        pendingLog.clear();
+        logLines.clear();
         logArea.setText("");
+        lastSnapshot = null;
+        throughputChart.clear();
+        queueDepthChart.clear();
+        waitChart.clear();
 
         int numTasks = (Integer) tasksSpinner.getValue();
         int numThreads = (Integer) threadsSpinner.getValue();
@@ -253,9 +304,9 @@ public class SchedulerGUI extends JFrame {
     }
 
     private void executeSimulation(int numTasks, int numThreads) throws InterruptedException {
-        scheduler = new TaskScheduler(numThreads);
+        TaskScheduler scheduler = new TaskScheduler(numThreads);
+        this.scheduler = scheduler;
         CountDownLatch latch = new CountDownLatch(numTasks);
-        List<Task> allTasks = new ArrayList<>();
         Random rand = new Random();
 
         metrics.setTotalTasks(numTasks);
@@ -279,7 +330,6 @@ public class SchedulerGUI extends JFrame {
                 }
             }, priority, delay);
 
-            allTasks.add(task);
             metrics.incrementPriority(priority.toString());
             scheduler.submit(task);
         }
@@ -296,10 +346,10 @@ public class SchedulerGUI extends JFrame {
 
         metrics.setEndTime(System.currentTimeMillis());
 
-        // Calculate final metrics
-        for (Task t : allTasks) {
-            long waitTime = t.getExecutionStartTime() - t.getSubmissionTime();
-            metrics.addWaitTime(waitTime);
+        // Calculate final metrics from the scheduler's wait-time histograms
+        SchedulerStats.Snapshot finalStats = scheduler.getStatsSnapshot();
+        for (Priority p : Priority.values()) {
+            metrics.addWaitTime(finalStats.getQueueWait(p).getSumNanos());
         }
 
         scheduler.shutdown();
@@ -316,35 +366,54 @@ public class SchedulerGUI extends JFrame {
 
     private synchronized void stopSimulation() {
         isRunning = false;
-        if (scheduler != null) {
-            scheduler.shutdown();
+        TaskScheduler current = scheduler;
+        if (current != null) {
+            current.shutdown();
         }
         updateStatus("Simulation stopped by user");
         resetUI();
     }
 
-    private void startMetricsUpdateThread() {
-        Thread metricsThread = new Thread(() -> {
-            while (true) {
-                try {
-                    Thread.sleep(500);
-                    updateMetricsUI();
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-        });
-        metricsThread.setDaemon(true);
-        metricsThread.start();
+    private void startRefreshTimer() {
+        // javax.swing.Timer fires on the EDT, so every update below is
+        // coalesced into one pass per tick instead of one event per task
+        Timer refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refresh());
+        refreshTimer.setCoalesce(true);
+        refreshTimer.start();
     }
 
-    private void updateMetricsUI() {
+    private void refresh() {
+        TaskScheduler current = scheduler;
+        SchedulerStats.Snapshot snapshot = current != null ? current.getStatsSnapshot() : null;
+        updateMetricsUI(snapshot);
+        if (snapshot != null && isRunning) {
+            updateCharts(snapshot);
+        }
+        lastSnapshot = snapshot;
+        flushLog();
+    }
+
+    private void updateMetricsUI(SchedulerStats.Snapshot snapshot) {
         int completed = metrics.getCompletedTasks();
         int total = metrics.getTotalTasks();
 
+        if (snapshot != null) {
+            // Wait time comes from the scheduler's histograms rather than
+            // per-task bookkeeping, so it is available live during the run
+            long waitNanos = 0;
+            long waitCount = 0;
+            for (Priority p : Priority.values()) {
+                waitNanos += snapshot.getQueueWait(p).getSumNanos();
+                waitCount += snapshot.getQueueWait(p).getCount();
+            }
+            avgWaitLabel.setText(String.format("%.2f ms", waitCount == 0 ? 0 : waitNanos / 1_000_000.0 / waitCount));
+            queueLabel.setText(String.valueOf(snapshot.getTotalReadyDepth()));
+        } else {
+            avgWaitLabel.setText(String.format("%.2f ms", metrics.getAverageWaitTimeMs()));
+            queueLabel.setText(String.valueOf(metrics.getQueuedTasks()));
+        }
+
         completedLabel.setText(completed + "/" + total);
-        queueLabel.setText(String.valueOf(metrics.getQueuedTasks()));
-        avgWaitLabel.setText(String.format("%.2f ms", metrics.getAverageWaitTimeMs()));
         throughputLabel.setText(String.format("%.2f tasks/sec", metrics.getThroughputTasksPerSecond()));
         highPriorityLabel.setText(String.valueOf(metrics.getHighPriorityTasks()));
         mediumPriorityLabel.setText(String.valueOf(metrics.getMediumPriorityTasks()));
@@ -355,15 +424,62 @@ public class SchedulerGUI extends JFrame {
         }
     }
 
+    private void updateCharts(SchedulerStats.Snapshot snapshot) {
+        SchedulerStats.Snapshot previous = lastSnapshot;
+        if (previous == null || previous.getTakenAtNanos() >= snapshot.getTakenAtNanos()) {
+            return;
+        }
+        double seconds = (snapshot.getTakenAtNanos() - previous.getTakenAtNanos()) / 1e9;
+
+        throughputChart.addSample(
+                (snapshot.getTotalCompleted() - previous.getTotalCompleted()) / seconds);
+
+        queueDepthChart.addSample(
+                snapshot.getReadyDepth(Priority.HIGH),
+                snapshot.getReadyDepth(Priority.MEDIUM),
+                snapshot.getReadyDepth(Priority.LOW));
+
+        // p99 of the tasks that started during this tick only
+        double[] p99 = new double[Priority.values().length];
+        for (Priority p : Priority.values()) {
+            LatencyHistogram.Snapshot interval = snapshot.getQueueWait(p).minus(previous.getQueueWait(p));
+            p99[p.ordinal()] = interval.quantileNanos(0.99) / 1_000_000.0;
+        }
+        waitChart.addSample(p99);
+    }
+
     private void updateStatus(String message) {
         SwingUtilities.invokeLater(() -> statusLabel.setText(message));
     }
 
     private void addLog(String message) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append(message);
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        });
+        // Picked up by the next refresh tick; safe to call from any thread
+        pendingLog.offer(message);
+    }
+
+    /**
+     * Moves pending messages into the capped line buffer and redraws the log
+     * once if anything changed.
+     */
+    private void flushLog() {
+        boolean changed = false;
+        String message;
+        while ((message = pendingLog.poll()) != null) {
+            if (logLines.size() == MAX_LOG_LINES) {
+                logLines.removeFirst();
+            }
+            logLines.addLast(message);
+            changed = true;
+        }
+        if (!changed) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (String line : logLines) {
+            text.append(line);
+        }
+        logArea.setText(text.toString());
+        logArea.setCaretPosition(logArea.getDocument().getLength());
     }
 
     private void resetUI() {
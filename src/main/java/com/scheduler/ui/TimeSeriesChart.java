@@ -0,0 +1,147 @@
+package com.scheduler.ui;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Lightweight custom-painted line chart for live metrics.
+ * Keeps a fixed number of samples per series in a ring buffer, so memory and
+ * paint cost stay constant no matter how long a simulation runs.
+ * Not thread-safe: samples must be added on the Event Dispatch Thread.
+ */
+public class TimeSeriesChart extends JComponent {
+    private static final Color GRID_COLOR = new Color(225, 225, 225);
+
+    private final String title;
+    private final String unit;
+    private final String[] seriesNames;
+    private final Color[] colors;
+
+    // samples[series][slot], written round-robin
+    private final double[][] samples;
+    private int head;
+    private int size;
+
+    /**
+     * @param title       Chart title.
+     * @param unit        Unit shown after the latest values.
+     * @param seriesNames One name per series.
+     * @param colors      One color per series.
+     * @param capacity    Number of samples kept per series.
+     */
+    public TimeSeriesChart(String title, String unit, String[] seriesNames, Color[] colors, int capacity) {
+        this.title = title;
+        this.unit = unit;
+        this.seriesNames = seriesNames;
+        this.colors = colors;
+        this.samples = new double[seriesNames.length][capacity];
+        setPreferredSize(new Dimension(400, 120));
+        setOpaque(true);
+    }
+
+    /**
+     * Appends one value per series and schedules a repaint.
+     */
+    public void addSample(double... values) {
+        int capacity = samples[0].length;
+        for (int s = 0; s < samples.length; s++) {
+            samples[s][head] = s < values.length ? values[s] : 0;
+        }
+        head = (head + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        }
+        repaint();
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int w = getWidth();
+            int h = getHeight();
+            g2.setColor(Color.WHITE);
+            g2.fillRect(0, 0, w, h);
+
+            FontMetrics fm = g2.getFontMetrics();
+            int top = fm.getHeight() + 4;
+            int left = 4;
+            int plotW = w - 8;
+            int plotH = h - top - 4;
+            if (plotW <= 1 || plotH <= 1) {
+                return;
+            }
+
+            double max = maxValue();
+
+            // Grid and title
+            g2.setColor(GRID_COLOR);
+            for (int i = 0; i <= 4; i++) {
+                int y = top + plotH * i / 4;
+                g2.drawLine(left, y, left + plotW, y);
+            }
+            g2.setColor(Color.DARK_GRAY);
+            g2.drawString(title + "  (max " + format(max) + " " + unit + ")", left, fm.getAscent() + 2);
+
+            // Series
+            int capacity = samples[0].length;
+            int start = (head - size + capacity) % capacity;
+            for (int s = 0; s < samples.length; s++) {
+                g2.setColor(colors[s]);
+                int prevX = -1;
+                int prevY = -1;
+                for (int i = 0; i < size; i++) {
+                    double v = samples[s][(start + i) % capacity];
+                    int x = left + (size == 1 ? plotW : (int) ((long) plotW * i / (capacity - 1)));
+                    int y = top + plotH - (int) (plotH * (v / max));
+                    if (prevX >= 0) {
+                        g2.drawLine(prevX, prevY, x, y);
+                    }
+                    prevX = x;
+                    prevY = y;
+                }
+            }
+
+            // Legend with latest values, right-aligned
+            int x = w - 4;
+            for (int s = samples.length - 1; s >= 0; s--) {
+                double latest = size == 0 ? 0 : samples[s][(head - 1 + capacity) % capacity];
+                String label = seriesNames[s] + ": " + format(latest);
+                x -= fm.stringWidth(label) + 10;
+                g2.setColor(colors[s]);
+                g2.drawString(label, x, fm.getAscent() + 2);
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private double maxValue() {
+        int capacity = samples[0].length;
+        int start = (head - size + capacity) % capacity;
+        double max = 0;
+        for (double[] series : samples) {
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, series[(start + i) % capacity]);
+            }
+        }
+        return max > 0 ? max * 1.1 : 1;
+    }
+
+    private static String format(double value) {
+        if (value >= 1_000_000) {
+            return String.format("%.1fM", value / 1_000_000);
+        }
+        if (value >= 1_000) {
+            return String.format("%.1fk", value / 1_000);
+        }
+        return String.format("%.1f", value);
+    }
+}